@@ -0,0 +1,327 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.generation;
+
+import cientistavuador.ciencraftreal.Main;
+import cientistavuador.ciencraftreal.block.BlockTextureLoader;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.noise.NoiseBackends;
+import cientistavuador.ciencraftreal.noise.NoiseGridBenchmark;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of generating one chunk with WorldChunkGenerator and of each of its
+ * passes in isolation, without a GL context.
+ * <p>
+ * generate takes milliseconds and decoration needs a neighborhood of nine
+ * chunks, both prepare their chunks per invocation. The other passes are too
+ * short for that, they run in single shot mode over a batch of chunks
+ * prepared at the start of each iteration, the score is per chunk.
+ *
+ * @author Cien
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dciencraft.headless=true", "--add-modules", NoiseBackends.VECTOR_MODULE})
+public class GenerationBenchmark {
+
+    public static final int BATCH_SIZE = 100;
+
+    @Param({"1234"})
+    public long seed;
+
+    @Param({"scalar", "vector"})
+    public String backend;
+
+    private WorldCamera world;
+    private BiomeCache biomeCache;
+    private int chunkX = 0;
+
+    @Setup(Level.Trial)
+    public void setupWorld() {
+        Main.HEADLESS = true;
+        BlockTextureLoader.DEBUG_OUTPUT = false;
+        Blocks.init();
+        NoiseBackends.set(NoiseGridBenchmark.backend(this.backend));
+        this.world = new WorldCamera(null, this.seed, new WorldChunkGeneratorFactory());
+        this.biomeCache = WorldChunkGenerator.createBiomeCache(this.seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorld() {
+        this.world.close();
+    }
+
+    private WorldChunkGenerator newGenerator(int x, int z) {
+        return new WorldChunkGenerator(new Chunk(this.world, x, z), this.biomeCache);
+    }
+
+    private WorldChunkGenerator nextGenerator() {
+        this.chunkX++;
+        return newGenerator(this.chunkX, 0);
+    }
+
+    @State(Scope.Thread)
+    public static class GenerateState {
+
+        private WorldChunkGenerator generator;
+
+        @Setup(Level.Invocation)
+        public void setup(GenerationBenchmark benchmark) {
+            this.generator = benchmark.nextGenerator();
+        }
+    }
+
+    @Benchmark
+    public Chunk generate(GenerateState state) {
+        state.generator.generate();
+        return state.generator.getChunk();
+    }
+
+    //generators that already ran every pass before the one being measured, one per call of the iteration
+    public abstract static class Batch {
+
+        private final WorldChunkGenerator[] generators = new WorldChunkGenerator[BATCH_SIZE];
+        private int next = 0;
+
+        protected abstract void prepare(WorldChunkGenerator generator);
+
+        @Setup(Level.Iteration)
+        public void setup(GenerationBenchmark benchmark) {
+            for (int i = 0; i < this.generators.length; i++) {
+                WorldChunkGenerator generator = benchmark.nextGenerator();
+                prepare(generator);
+                this.generators[i] = generator;
+            }
+            this.next = 0;
+        }
+
+        public WorldChunkGenerator next() {
+            return this.generators[this.next++];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BiomeState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk biome(BiomeState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.generateBiomeMap();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class OreMapState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateBiomeMap();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk oreMap(OreMapState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.generateOreMap();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class SurfaceState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateBiomeMap();
+            generator.generateOreMap();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk surface(SurfaceState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.generateSurface();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class ColumnsState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateBiomeMap();
+            generator.generateOreMap();
+            generator.generateSurface();
+        }
+    }
+
+    //stone, soil, bedrock and ores, including the interpolated ore noise
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk columns(ColumnsState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.generateOreNoise();
+        generator.generateColumns();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class NegativeTerrainState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateBiomeMap();
+            generator.generateOreMap();
+            generator.generateSurface();
+            generator.generateOreNoise();
+            generator.generateColumns();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk negativeTerrain(NegativeTerrainState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.generateNegativeTerrain();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class TreesState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateBiomeMap();
+            generator.generateOreMap();
+            generator.generateSurface();
+            generator.generateOreNoise();
+            generator.generateColumns();
+            generator.generateNegativeTerrain();
+            generator.generateOreClues();
+        }
+    }
+
+    //planning only, placing is measured by decoration
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk trees(TreesState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.planTrees();
+        return generator.getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class DecorationState {
+
+        private final WorldChunkGenerator[] neighborhood = new WorldChunkGenerator[9];
+
+        @Setup(Level.Invocation)
+        public void setup(GenerationBenchmark benchmark) {
+            benchmark.chunkX += 3;
+            for (int z = -1; z <= 1; z++) {
+                for (int x = -1; x <= 1; x++) {
+                    WorldChunkGenerator g = benchmark.newGenerator(benchmark.chunkX + x, z);
+                    g.generateTerrain();
+                    this.neighborhood[(x + 1) + ((z + 1) * 3)] = g;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Chunk decoration(DecorationState state) {
+        state.neighborhood[4].decorate(state.neighborhood);
+        return state.neighborhood[4].getChunk();
+    }
+
+    @State(Scope.Thread)
+    public static class FinalizationState extends Batch {
+
+        @Override
+        protected void prepare(WorldChunkGenerator generator) {
+            generator.generateTerrain();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Chunk finalization(FinalizationState state) {
+        WorldChunkGenerator generator = state.next();
+        generator.finish();
+        return generator.getChunk();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
+
+import cientistavuador.ciencraftreal.Main;
+import cientistavuador.ciencraftreal.block.BlockTextureLoader;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.generation.BiomeCache;
+import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGenerator;
+import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGeneratorFactory;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of meshing the layers of generated chunks with VerticesCreator,
+ * without a GL context.
+ *
+ * @author Cien
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dciencraft.headless=true"})
+public class MeshBenchmark {
+
+    @Param({"1234"})
+    public long seed;
+
+    //chunks generated on each axis
+    @Param({"4"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean greedy;
+
+    private WorldCamera world;
+    private final List<ChunkSnapshot> snapshots = new ArrayList<>();
+    private int next = 0;
+    private final LayerStreams reusedStreams = new LayerStreams(0);
+    private final NeighborhoodBuffer neighborhoodBuffer = new NeighborhoodBuffer();
+
+    @Setup(Level.Trial)
+    public void setupWorld() {
+        Main.HEADLESS = true;
+        BlockTextureLoader.DEBUG_OUTPUT = false;
+        Blocks.init();
+        VerticesCreator.GREEDY_MESHING = this.greedy;
+        this.world = new WorldCamera(null, this.seed, new WorldChunkGeneratorFactory());
+        BiomeCache biomeCache = WorldChunkGenerator.createBiomeCache(this.seed);
+        for (int x = 0; x < this.size; x++) {
+            for (int z = 0; z < this.size; z++) {
+                WorldChunkGenerator generator = new WorldChunkGenerator(new Chunk(this.world, x, z), biomeCache);
+                generator.generate();
+                Chunk chunk = generator.getChunk();
+                for (int i = 0; i < chunk.getNumberOfSections(); i++) {
+                    this.snapshots.add(ChunkSnapshot.of(chunk, i));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorld() {
+        this.world.close();
+    }
+
+    private ChunkSnapshot nextSnapshot() {
+        ChunkSnapshot snapshot = this.snapshots.get(this.next);
+        this.next = (this.next + 1) % this.snapshots.size();
+        return snapshot;
+    }
+
+    //both streams of one layer as submitted by ChunkLayer, layers are taken in turn from every generated chunk
+    @Benchmark
+    public LayerStreams layer() {
+        return VerticesCreator.generateStreams(nextSnapshot());
+    }
+
+    //same as layer into streams that already grew, -prof gc shows what meshing allocates by itself
+    @Benchmark
+    public LayerStreams layerReused() {
+        VerticesCreator.generateStreams(this.reusedStreams, nextSnapshot());
+        return this.reusedStreams;
+    }
+
+    //copying a layer and its halo, done once for each layer
+    @Benchmark
+    public NeighborhoodBuffer neighborhood() {
+        this.neighborhoodBuffer.fill(nextSnapshot());
+        return this.neighborhoodBuffer;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.noise;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a single noise sample, the grids used by the world generator
+ * are measured by NoiseGridBenchmark.
+ *
+ * @author Cien
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+
+    public static final long SEED = 1234;
+    public static final double STEP = 1.0 / 80.0;
+
+    private double x = 0.0;
+
+    private double next() {
+        this.x += STEP;
+        return this.x;
+    }
+
+    @Benchmark
+    public float openSimplex2Noise2() {
+        double v = next();
+        return OpenSimplex2.noise2(SEED, v, v * 0.5);
+    }
+
+    @Benchmark
+    public float openSimplex2Noise3() {
+        double v = next();
+        return OpenSimplex2.noise3_ImproveXZ(SEED, v, v * 0.25, v * 0.5);
+    }
+
+    @Benchmark
+    public float openSimplex2SNoise2() {
+        double v = next();
+        return OpenSimplex2S.noise2(SEED, v, v * 0.5);
+    }
+
+    @Benchmark
+    public float openSimplex2SNoise3() {
+        double v = next();
+        return OpenSimplex2S.noise3_ImproveXZ(SEED, v, v * 0.25, v * 0.5);
+    }
+
+}
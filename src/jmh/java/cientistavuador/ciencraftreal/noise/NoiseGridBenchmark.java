@@ -0,0 +1,131 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.noise;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the chunk sized grids used by the world generator on each
+ * noise backend, against evaluating the same samples one by one.
+ *
+ * @author Cien
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", NoiseBackends.VECTOR_MODULE})
+public class NoiseGridBenchmark {
+
+    public static final long SEED = NoiseBenchmark.SEED;
+    public static final double STEP = NoiseBenchmark.STEP;
+
+    private final float[] grid2 = new float[32 * 32];
+    private final float[] grid3 = new float[32 * 41];
+    private double x = 0.0;
+
+    //fails instead of measuring the scalar backend twice when the vector profile was not built
+    public static NoiseBackend backend(String name) {
+        if (name.equals("vector") && !NoiseBackends.isVectorAvailable()) {
+            throw new IllegalStateException("Vector noise backend not available, package with -P jmh,vector");
+        }
+        return NoiseBackends.forName(name);
+    }
+
+    @State(Scope.Thread)
+    public static class BackendState {
+
+        @Param({"scalar", "vector"})
+        public String backend;
+
+        private NoiseBackend noise;
+
+        @Setup(Level.Trial)
+        public void setupBackend() {
+            this.noise = backend(this.backend);
+        }
+    }
+
+    private double next() {
+        this.x += STEP;
+        return this.x;
+    }
+
+    //32x32 samples per operation
+    @Benchmark
+    public float[] noise2Grid(BackendState state) {
+        double v = next() * 80.0;
+        state.noise.noise2Grid(SEED, v, 0.5, 1.0, -1.0, 80.0, 32, 32, this.grid2);
+        return this.grid2;
+    }
+
+    //the same samples as noise2Grid, one noise2 call each
+    @Benchmark
+    public float[] noise2Samples() {
+        double v = next() * 80.0;
+        for (int j = 0; j < 32; j++) {
+            for (int i = 0; i < 32; i++) {
+                this.grid2[i + j * 32] = OpenSimplex2.noise2(SEED, (v + i * 1.0) / 80.0, (0.5 + j * -1.0) / 80.0);
+            }
+        }
+        return this.grid2;
+    }
+
+    //32x41 samples per operation, one z slab of the ore noise
+    @Benchmark
+    public float[] noise3Grid(BackendState state) {
+        double v = next() * 400.0;
+        state.noise.noise3Grid_ImproveXZ(SEED, v, 10.5, -0.5, 1.0, 1.0, 0.0, 400.0, 32, 41, 1, this.grid3);
+        return this.grid3;
+    }
+
+    //the same samples as noise3Grid, one noise3_ImproveXZ call each
+    @Benchmark
+    public float[] noise3Samples() {
+        double v = next() * 400.0;
+        for (int j = 0; j < 41; j++) {
+            for (int i = 0; i < 32; i++) {
+                this.grid3[i + 32 * j] = OpenSimplex2.noise3_ImproveXZ(SEED, (v + i * 1.0) / 400.0, (10.5 + j * 1.0) / 400.0, -0.5 / 400.0);
+            }
+        }
+        return this.grid3;
+    }
+
+}
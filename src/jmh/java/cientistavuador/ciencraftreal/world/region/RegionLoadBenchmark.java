@@ -0,0 +1,200 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world.region;
+
+import cientistavuador.ciencraftreal.Main;
+import cientistavuador.ciencraftreal.block.BlockTextureLoader;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.generation.BiomeCache;
+import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGenerator;
+import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGeneratorFactory;
+import cientistavuador.ciencraftreal.world.ChunkCache;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of bringing back a chunk that was already saved, from the region
+ * files, from the chunk cache or only deserialized, against generating it
+ * again with WorldChunkGenerator.
+ * <p>
+ * The saved chunks are fully generated and decorated by the world pipeline
+ * during the setup and written to region files in a temporary directory.
+ *
+ * @author Cien
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dciencraft.headless=true"})
+public class RegionLoadBenchmark {
+
+    public static final int SAVED_SIZE = 8;
+
+    @Param({"1234"})
+    public long seed;
+
+    private WorldCamera world;
+    private BiomeCache biomeCache;
+    private Path directory;
+    private RegionStorage storage;
+    private final ChunkCache cache = new ChunkCache();
+    private final List<Chunk> saved = new ArrayList<>();
+    private final List<byte[]> serialized = new ArrayList<>();
+    private int next = 0;
+    private int chunkX = 0;
+
+    @Setup(Level.Trial)
+    public void setupWorld() throws IOException {
+        Main.HEADLESS = true;
+        BlockTextureLoader.DEBUG_OUTPUT = false;
+        Blocks.init();
+        this.world = new WorldCamera(null, this.seed, new WorldChunkGeneratorFactory());
+        this.biomeCache = WorldChunkGenerator.createBiomeCache(this.seed);
+
+        this.directory = Files.createTempDirectory("ciencraft-regions");
+        this.storage = new RegionStorage(this.directory);
+        for (int z = 0; z < SAVED_SIZE; z++) {
+            for (int x = 0; x < SAVED_SIZE; x++) {
+                Chunk chunk = this.world.getPipeline().generate(x, z);
+                this.storage.save(chunk);
+
+                ByteBuffer data = ByteBuffer.allocate(chunk.getSerializedSize());
+                chunk.write(data);
+                this.saved.add(chunk);
+                this.serialized.add(data.array());
+            }
+        }
+        this.storage.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorld() throws IOException {
+        this.world.close();
+        this.storage.close();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private int nextSaved() {
+        int index = this.next;
+        this.next = (this.next + 1) % this.saved.size();
+        return index;
+    }
+
+    private Chunk emptyChunk(int index) {
+        Chunk chunk = this.saved.get(index);
+        return new Chunk(this.world, chunk.getChunkX(), chunk.getChunkZ());
+    }
+
+    @State(Scope.Thread)
+    public static class GeneratorState {
+
+        private WorldChunkGenerator generator;
+
+        //a chunk that was never saved, far away from the saved ones
+        @Setup(Level.Invocation)
+        public void setup(RegionLoadBenchmark benchmark) {
+            benchmark.chunkX++;
+            this.generator = new WorldChunkGenerator(new Chunk(benchmark.world, benchmark.chunkX, -SAVED_SIZE * 4), benchmark.biomeCache);
+        }
+    }
+
+    @Benchmark
+    public Chunk generate(GeneratorState state) {
+        state.generator.generate();
+        return state.generator.getChunk();
+    }
+
+    @Benchmark
+    public Chunk load() {
+        Chunk chunk = emptyChunk(nextSaved());
+        if (!this.storage.load(chunk)) {
+            throw new IllegalStateException("Chunk was not saved");
+        }
+        return chunk;
+    }
+
+    @Benchmark
+    public Chunk read() {
+        int index = nextSaved();
+        Chunk chunk = emptyChunk(index);
+        chunk.read(ByteBuffer.wrap(this.serialized.get(index)));
+        return chunk;
+    }
+
+    @State(Scope.Thread)
+    public static class CacheState {
+
+        private ChunkCache cache;
+        private Chunk chunk;
+
+        //the cache removes the entries it loads, so the chunk is put back before every load
+        @Setup(Level.Invocation)
+        public void setup(RegionLoadBenchmark benchmark) {
+            int index = benchmark.nextSaved();
+            this.cache = benchmark.cache;
+            this.cache.put(benchmark.saved.get(index));
+            this.chunk = benchmark.emptyChunk(index);
+        }
+    }
+
+    @Benchmark
+    public Chunk loadCache(CacheState state) {
+        if (!state.cache.load(state.chunk)) {
+            throw new IllegalStateException("Chunk was not cached");
+        }
+        return state.chunk;
+    }
+
+}
@@ -32,7 +32,9 @@ import cientistavuador.ciencraftreal.block.BlockRegister;
 import cientistavuador.ciencraftreal.block.BlockSounds;
 import cientistavuador.ciencraftreal.block.Blocks;
 import cientistavuador.ciencraftreal.block.StateOfMatter;
+import cientistavuador.ciencraftreal.camera.Camera;
 import cientistavuador.ciencraftreal.camera.FreeCamera;
+import cientistavuador.ciencraftreal.chunk.Chunk;
 import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGeneratorFactory;
 import cientistavuador.ciencraftreal.chunk.render.layer.ShadowProfile;
 import cientistavuador.ciencraftreal.player.Player;
@@ -40,11 +42,16 @@ import cientistavuador.ciencraftreal.player.PlayerPhysics;
 import cientistavuador.ciencraftreal.ubo.CameraUBO;
 import cientistavuador.ciencraftreal.ubo.UBOBindingPoints;
 import cientistavuador.ciencraftreal.debug.AabRender;
+import cientistavuador.ciencraftreal.debug.ChunkMemoryReport;
+import cientistavuador.ciencraftreal.debug.SnapshotStressTest;
+import cientistavuador.ciencraftreal.debug.WorldEditBenchmark;
 import cientistavuador.ciencraftreal.text.GLFontRenderer;
 import cientistavuador.ciencraftreal.text.GLFontSpecification;
 import cientistavuador.ciencraftreal.text.GLFontSpecifications;
 import cientistavuador.ciencraftreal.util.BlockOutline;
 import cientistavuador.ciencraftreal.world.WorldCamera;
+import cientistavuador.ciencraftreal.world.region.RegionStorage;
+import java.nio.file.Path;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL33C.*;
 
@@ -54,14 +61,17 @@ import static org.lwjgl.opengl.GL33C.*;
  */
 public class Game {
 
+    private static final long WORLD_SEED = 65487321654L;
     private static final Game GAME = new Game();
+    private static final int[] VIEW_DISTANCES = {2, 4, 6, 8, 12, 16, 24, 32};
 
     public static Game get() {
         return GAME;
     }
 
     private final FreeCamera camera = new FreeCamera();
-    private final WorldCamera world = new WorldCamera(camera, 65487321654L, new WorldChunkGeneratorFactory());
+    private final WorldChunkGeneratorFactory generatorFactory = new WorldChunkGeneratorFactory();
+    private final WorldCamera world = new WorldCamera(camera, WORLD_SEED, generatorFactory, new RegionStorage(Path.of("worlds", Long.toString(WORLD_SEED))));
     private final BlockOutline outline = new BlockOutline(world, camera);
     private final Player player = new Player(world);
     private final int maxTextureSize = glGetInteger(GL_MAX_TEXTURE_SIZE);
@@ -153,6 +163,11 @@ public class Game {
                             .append("\tG - Enable/disable shadows.\n")
                             .append("\tT - Shadow Profile: ").append(this.shadowProfile.toString()).append("\n")
                             .append("\tC - Shadow Framerate Divisor: ").append(Main.SHADOWS_FRAMERATE_DIVISOR).append("\n")
+                            .append("\tM - Print chunk memory report.\n")
+                            .append("\tP - Print world statistics.\n")
+                            .append("\tB - Run world edit benchmark.\n")
+                            .append("\tK - Run chunk snapshot stress test.\n")
+                            .append("\tN - View Distance: ").append(this.world.getViewDistance()).append("\n")
                             .toString()
                 }
         );
@@ -164,6 +179,10 @@ public class Game {
         return String.format("%.2f", d);
     }
 
+    public void close() {
+        world.close();
+    }
+
     public void mouseCursorMoved(double x, double y) {
         camera.mouseCursorMoved(x, y);
     }
@@ -222,6 +241,35 @@ public class Game {
                 Main.SHADOWS_FRAMERATE_DIVISOR = 1;
             }
         }
+        if (key == GLFW_KEY_N && action == GLFW_PRESS) {
+            int nextViewDistance = VIEW_DISTANCES[0];
+            for (int viewDistance : VIEW_DISTANCES) {
+                if (viewDistance > this.world.getViewDistance()) {
+                    nextViewDistance = viewDistance;
+                    break;
+                }
+            }
+            this.world.setViewDistance(nextViewDistance);
+            this.camera.setFarPlane((float) Math.max(Camera.DEFAULT_FAR_PLANE, (nextViewDistance + 1) * Chunk.CHUNK_SIZE * Math.sqrt(2.0)));
+        }
+        if (key == GLFW_KEY_P && action == GLFW_PRESS) {
+            this.world.getStatistics().print();
+            this.world.getCache().print();
+            this.world.getScheduler().print();
+            this.world.getPipeline().print();
+            if (this.generatorFactory.getBiomeCache() != null) {
+                this.generatorFactory.getBiomeCache().print();
+            }
+        }
+        if (key == GLFW_KEY_M && action == GLFW_PRESS) {
+            ChunkMemoryReport.print(this.world);
+        }
+        if (key == GLFW_KEY_B && action == GLFW_PRESS) {
+            WorldEditBenchmark.run(this.world);
+        }
+        if (key == GLFW_KEY_K && action == GLFW_PRESS) {
+            SnapshotStressTest.run(this.world);
+        }
         if (key == GLFW_KEY_T && action == GLFW_PRESS) {
             ShadowProfile nextProfile = ShadowProfile.VERY_LOW;
             switch (this.shadowProfile) {
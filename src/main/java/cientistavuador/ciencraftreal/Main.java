@@ -55,6 +55,9 @@ public class Main {
     public static final boolean SPIKE_LAG_WARNINGS = false;
     public static final int MIN_TEXTURE_3D_SIZE_SUPPORTED = 2048;
     public static final int MIN_UNIFORM_BUFFER_BINDINGS = UBOBindingPoints.MIN_NUMBER_OF_UBO_BINDING_POINTS;
+    
+    //no GL context, blocks and materials are created without GL resources (benchmarks and tools)
+    public static boolean HEADLESS = Boolean.getBoolean("ciencraft.headless");
 
     static {
         org.lwjgl.system.Configuration.LIBRARY_PATH.set("natives");
@@ -385,6 +388,9 @@ public class Main {
 
             Main.FRAME++;
         }
+        
+        Game.get().close();
+        
         if (DEBUG_CALLBACK != null) {
             DEBUG_CALLBACK.free();
         }
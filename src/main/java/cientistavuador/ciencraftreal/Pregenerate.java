@@ -0,0 +1,214 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal;
+
+import cientistavuador.ciencraftreal.block.BlockTextureLoader;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.generation.WorldChunkGeneratorFactory;
+import cientistavuador.ciencraftreal.noise.NoiseBackends;
+import cientistavuador.ciencraftreal.world.GenerationPipeline;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import cientistavuador.ciencraftreal.world.region.RegionStorage;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Generates a square of size x size chunks centered on the origin without a
+ * window or GL context and writes them to the region files of the world, so
+ * a world can be warmed before anyone joins.
+ * <p>
+ * Usage: Pregenerate &lt;seed&gt; &lt;size&gt; [directory] [threads]
+ * <p>
+ * The directory defaults to worlds/&lt;seed&gt; (the same one used by the
+ * game), threads defaults to every core and "-" as directory only measures
+ * generation without writing anything.
+ *
+ * @author Cien
+ */
+public class Pregenerate {
+
+    private final long seed;
+    private final int size;
+    private final Path directory;
+    private final int threads;
+
+    private long chunksSaved = 0;
+    private long bytesSaved = 0;
+    private long saveTime = 0;
+    private long totalTime = 0;
+
+    public Pregenerate(long seed, int size, Path directory, int threads) {
+        this.seed = seed;
+        this.size = size;
+        this.directory = directory;
+        this.threads = threads;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    //sum of the peaks of each heap pool, the pools peak at different times so this is an upper bound
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private List<CompletableFuture<Chunk>> submitRow(GenerationPipeline pipeline, int minX, int chunkZ) {
+        List<CompletableFuture<Chunk>> row = new ArrayList<>(this.size);
+        for (int x = 0; x < this.size; x++) {
+            row.add(pipeline.submit(minX + x, chunkZ));
+        }
+        return row;
+    }
+
+    private void save(RegionStorage storage, List<CompletableFuture<Chunk>> row) {
+        for (CompletableFuture<Chunk> future : row) {
+            Chunk chunk = future.join();
+            if (storage != null) {
+                long time = System.nanoTime();
+                this.bytesSaved += storage.save(chunk);
+                this.saveTime += System.nanoTime() - time;
+                this.chunksSaved++;
+            }
+        }
+    }
+
+    public void run(PrintStream out) {
+        int min = -(this.size / 2);
+        int max = min + this.size - 1;
+
+        RegionStorage storage = (this.directory == null ? null : new RegionStorage(this.directory));
+        WorldChunkGeneratorFactory factory = new WorldChunkGeneratorFactory();
+        //headless world, the pipeline is the only pool of threads
+        WorldCamera world = new WorldCamera(null, this.seed, factory, null, this.threads);
+        GenerationPipeline pipeline = world.getPipeline();
+
+        resetPeakHeap();
+        long time = System.nanoTime();
+        try {
+            //two rows are in flight, the next row generates while the current one is written
+            List<CompletableFuture<Chunk>> row = submitRow(pipeline, min, min);
+            for (int z = min; z <= max; z++) {
+                List<CompletableFuture<Chunk>> next = null;
+                if (z != max) {
+                    next = submitRow(pipeline, min, z + 1);
+                }
+                save(storage, row);
+                //only the terrain of the rows around the next one is still needed
+                pipeline.prune(min - 1, z, max + 1, max + 1);
+                row = next;
+            }
+            if (storage != null) {
+                storage.flush();
+            }
+            this.totalTime = System.nanoTime() - time;
+        } finally {
+            world.close();
+            if (storage != null) {
+                storage.close();
+            }
+        }
+
+        print(out, pipeline);
+        if (factory.getBiomeCache() != null) {
+            factory.getBiomeCache().print(out);
+        }
+    }
+
+    private static String format(double d) {
+        return String.format("%.2f", d);
+    }
+
+    private void print(PrintStream out, GenerationPipeline pipeline) {
+        long chunks = ((long) this.size) * this.size;
+        double seconds = this.totalTime / 1E9;
+        out.println("===Pregenerate===");
+        try {
+            out.println("Seed - " + this.seed + ", Size - " + this.size + "x" + this.size + ", Threads - " + this.threads);
+            out.println("Directory - " + (this.directory == null ? "none" : this.directory.toAbsolutePath()));
+            out.println("Noise Backend - " + NoiseBackends.get().getName());
+            out.println("Chunks - " + chunks + " in " + format(seconds) + "s (" + format(chunks / seconds) + " chunks/s)");
+            if (this.chunksSaved != 0) {
+                out.println("Saved - " + this.chunksSaved + " chunk(s), " + format(this.bytesSaved / (1024.0 * 1024.0)) + "MB (average: " + String.format("%.4f", (this.saveTime / 1E6) / this.chunksSaved) + "ms)");
+            }
+            out.println("Peak Heap - " + format(peakHeap() / (1024.0 * 1024.0)) + "MB");
+        } finally {
+            out.println("=======");
+        }
+        pipeline.print(out);
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            System.out.println("Usage: Pregenerate <seed> <size> [directory|-] [threads]");
+            return;
+        }
+
+        long seed = Long.parseLong(args[0]);
+        int size = Integer.parseInt(args[1]);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+
+        Path directory = Path.of("worlds", Long.toString(seed));
+        if (args.length >= 3) {
+            directory = (args[2].equals("-") ? null : Path.of(args[2]));
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length >= 4) {
+            threads = Integer.parseInt(args[3]);
+        }
+
+        Main.HEADLESS = true;
+        BlockTextureLoader.DEBUG_OUTPUT = false;
+        Blocks.init();
+
+        new Pregenerate(seed, size, directory, threads).run(System.out);
+    }
+
+}
@@ -29,6 +29,8 @@ package cientistavuador.ciencraftreal.block;
 import static cientistavuador.ciencraftreal.block.BlockSide.NORTH;
 import static cientistavuador.ciencraftreal.block.BlockSide.SOUTH;
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.NeighborhoodBuffer;
 import java.util.Arrays;
 
 /**
@@ -46,11 +48,21 @@ public class AmbientOcclusion {
             throw new UnsupportedOperationException("No Occlusion Object");
         }
 
+        @Override
+        public void setBlock(ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+            throw new UnsupportedOperationException("No Occlusion Object");
+        }
+
         @Override
         public void generateSideAO(BlockSide side) {
             throw new UnsupportedOperationException("No Occlusion Object");
         }
 
+        @Override
+        public void setSideAO(BlockSide side, float ao) {
+            throw new UnsupportedOperationException("No Occlusion Object");
+        }
+
         @Override
         public float getSideVertexAO(boolean xPositive, boolean yPositive, boolean zPositive) {
             return 0f;
@@ -63,22 +75,31 @@ public class AmbientOcclusion {
     };
     
     private Chunk chunk;
+    private ChunkSnapshot snapshot;
+    private NeighborhoodBuffer buffer;
+    private int bufferIndex;
     private int chunkBlockX;
     private int chunkBlockY;
     private int chunkBlockZ;
-    private final int[] aoSolidCache = new int[3 * 3 * 3];
+    //one bit per block of the 3x3x3 cube, so setBlock clears the cache without filling an array
+    private int aoSolidCached = 0;
+    private int aoSolidCache = 0;
     private BlockSide side;
     private final float[] sideVertexAO = new float[4];
     private boolean generateFlippedQuad;
 
     public AmbientOcclusion() {
-        Arrays.fill(this.aoSolidCache, -1);
+
     }
 
     public Chunk getChunk() {
         return chunk;
     }
 
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public int getChunkBlockX() {
         return chunkBlockX;
     }
@@ -101,20 +122,45 @@ public class AmbientOcclusion {
     
     public void setBlock(Chunk chunk, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
         this.chunk = chunk;
+        this.snapshot = null;
+        this.buffer = null;
         this.chunkBlockX = chunkBlockX;
         this.chunkBlockY = chunkBlockY;
         this.chunkBlockZ = chunkBlockZ;
-        Arrays.fill(this.aoSolidCache, -1);
+        this.aoSolidCached = 0;
+        this.aoSolidCache = 0;
         this.side = null;
-        Arrays.fill(this.sideVertexAO, 0f);
+    }
+
+    public void setBlock(ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        setBlock(snapshot.getChunk(), chunkBlockX, chunkBlockY, chunkBlockZ);
+        this.snapshot = snapshot;
+    }
+
+    public void setBlock(NeighborhoodBuffer buffer, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        setBlock(buffer.getSnapshot(), chunkBlockX, chunkBlockY, chunkBlockZ);
+        this.buffer = buffer;
+        this.bufferIndex = buffer.index(chunkBlockX, chunkBlockY, chunkBlockZ);
     }
 
     private int isAOSolid(int offsetX, int offsetY, int offsetZ) {
-        int cacheIndex = (offsetX + 1) + ((offsetY + 1) * 3) + ((offsetZ + 1) * 3 * 3);
+        int cacheBit = 1 << ((offsetX + 1) + ((offsetY + 1) * 3) + ((offsetZ + 1) * 3 * 3));
+
+        if ((this.aoSolidCached & cacheBit) != 0) {
+            return ((this.aoSolidCache & cacheBit) != 0 ? 1 : 0);
+        }
+        this.aoSolidCached |= cacheBit;
 
-        int cacheValue = this.aoSolidCache[cacheIndex];
-        if (cacheValue != -1) {
-            return cacheValue;
+        if (this.buffer != null) {
+            int index = this.bufferIndex
+                    + (offsetX * NeighborhoodBuffer.STEP_X)
+                    + (offsetY * NeighborhoodBuffer.STEP_Y)
+                    + (offsetZ * NeighborhoodBuffer.STEP_Z);
+            if (!BlockRegister.isAOSolid(this.buffer.getBlockId(index))) {
+                return 0;
+            }
+            this.aoSolidCache |= cacheBit;
+            return 1;
         }
 
         offsetX += this.chunkBlockX;
@@ -122,17 +168,21 @@ public class AmbientOcclusion {
         offsetZ += this.chunkBlockZ;
 
         if (offsetY < 0 || offsetY >= Chunk.CHUNK_HEIGHT) {
-            this.aoSolidCache[cacheIndex] = 0;
             return 0;
         }
 
-        Block block = Chunk.getBlock(this.chunk, offsetX, offsetY, offsetZ);
-        if (block == Blocks.AIR || !block.isAOSolid()) {
-            this.aoSolidCache[cacheIndex] = 0;
+        boolean solid;
+        if (this.snapshot != null) {
+            solid = BlockRegister.isAOSolid(this.snapshot.getBlockId(offsetX, offsetY, offsetZ));
+        } else {
+            Block block = Chunk.getBlock(this.chunk, offsetX, offsetY, offsetZ);
+            solid = block != Blocks.AIR && block.isAOSolid();
+        }
+        if (!solid) {
             return 0;
         }
         
-        this.aoSolidCache[cacheIndex] = 1;
+        this.aoSolidCache |= cacheBit;
         return 1;
     }
     
@@ -179,6 +229,18 @@ public class AmbientOcclusion {
         this.generateFlippedQuad = shouldFlipQuad(this.sideVertexAO[0], this.sideVertexAO[3], this.sideVertexAO[2], this.sideVertexAO[1]);
     }
     
+    //same ao on every vertex of the side, used for merged faces
+    public void setSideAO(BlockSide side, float ao) {
+        this.side = side;
+        Arrays.fill(this.sideVertexAO, ao);
+        this.generateFlippedQuad = shouldFlipQuad(ao, ao, ao, ao);
+    }
+
+    public boolean isSideAOUniform() {
+        float ao = this.sideVertexAO[0];
+        return this.sideVertexAO[1] == ao && this.sideVertexAO[2] == ao && this.sideVertexAO[3] == ao;
+    }
+    
     public float getSideVertexAO(boolean xPositive, boolean yPositive, boolean zPositive) {
         switch (this.side) {
             case NORTH, SOUTH -> {
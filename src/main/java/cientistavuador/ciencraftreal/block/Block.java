@@ -27,6 +27,8 @@
 package cientistavuador.ciencraftreal.block;
 
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.NeighborhoodBuffer;
 import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesStream;
 import cientistavuador.ciencraftreal.player.PlayerPhysics;
 import org.joml.Intersectiond;
@@ -44,7 +46,11 @@ public interface Block {
     void setId(int id);
     @Deprecated
     float[] generateVertices(Chunk chunk, int chunkBlockX, int chunkBlockY, int chunkBlockZ);
-    default void generateVertices(VerticesStream stream, Chunk chunk, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {};
+    default void generateVertices(VerticesStream stream, ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {};
+    //blocks and ao are reused by the caller for every block, they must not be kept after returning
+    default void generateVertices(VerticesStream stream, NeighborhoodBuffer blocks, AmbientOcclusion ao, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        generateVertices(stream, blocks.getSnapshot(), chunkBlockX, chunkBlockY, chunkBlockZ);
+    }
     BlockTransparency getBlockTransparency();
     default StateOfMatter getStateOfMatter() {
         return StateOfMatter.SOLID;
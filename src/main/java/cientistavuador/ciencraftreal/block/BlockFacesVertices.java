@@ -52,6 +52,7 @@ public class BlockFacesVertices {
         generateFaceVertices(stream, side, x, y, z, texture, scaleX, scaleY, scaleZ, null);
     }
 
+    //the texture repeats along the scaled axes, so a face scaled by a whole number of blocks looks like that many faces
     public static void generateFaceVertices(VerticesStream stream, BlockSide side, float x, float y, float z, int texture, float scaleX, float scaleY, float scaleZ, AmbientOcclusion ao) {
         if (ao == null) {
             ao = AmbientOcclusion.NO_OCCLUSION;
@@ -72,10 +73,10 @@ public class BlockFacesVertices {
 
         switch (side) {
             case NORTH -> {
-                stream.vertex(xN, yP, zN, 0f, 0f, -1f, 1f, 1f, texture, ao.getSideVertexAO(false, true, false));
+                stream.vertex(xN, yP, zN, 0f, 0f, -1f, scaleX, scaleY, texture, ao.getSideVertexAO(false, true, false));
                 stream.vertex(xP, yN, zN, 0f, 0f, -1f, 0f, 0f, texture, ao.getSideVertexAO(true, false, false));
-                stream.vertex(xN, yN, zN, 0f, 0f, -1f, 1f, 0f, texture, ao.getSideVertexAO(false, false, false));
-                stream.vertex(xP, yP, zN, 0f, 0f, -1f, 0f, 1f, texture, ao.getSideVertexAO(true, true, false));
+                stream.vertex(xN, yN, zN, 0f, 0f, -1f, scaleX, 0f, texture, ao.getSideVertexAO(false, false, false));
+                stream.vertex(xP, yP, zN, 0f, 0f, -1f, 0f, scaleY, texture, ao.getSideVertexAO(true, true, false));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 3, 2, 3, 1, 2);
                 } else {
@@ -84,10 +85,10 @@ public class BlockFacesVertices {
                 return;
             }
             case SOUTH -> {
-                stream.vertex(xN, yP, zP, 0f, 0f, 1f, 0f, 1f, texture, ao.getSideVertexAO(false, true, true));
+                stream.vertex(xN, yP, zP, 0f, 0f, 1f, 0f, scaleY, texture, ao.getSideVertexAO(false, true, true));
                 stream.vertex(xN, yN, zP, 0f, 0f, 1f, 0f, 0f, texture, ao.getSideVertexAO(false, false, true));
-                stream.vertex(xP, yN, zP, 0f, 0f, 1f, 1f, 0f, texture, ao.getSideVertexAO(true, false, true));
-                stream.vertex(xP, yP, zP, 0f, 0f, 1f, 1f, 1f, texture, ao.getSideVertexAO(true, true, true));
+                stream.vertex(xP, yN, zP, 0f, 0f, 1f, scaleX, 0f, texture, ao.getSideVertexAO(true, false, true));
+                stream.vertex(xP, yP, zP, 0f, 0f, 1f, scaleX, scaleY, texture, ao.getSideVertexAO(true, true, true));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 1, 3, 3, 1, 2);
                 } else {
@@ -96,10 +97,10 @@ public class BlockFacesVertices {
                 return;
             }
             case EAST -> {
-                stream.vertex(xP, yP, zN, 1f, 0f, 0f, 1f, 1f, texture, ao.getSideVertexAO(true, true, false));
+                stream.vertex(xP, yP, zN, 1f, 0f, 0f, scaleZ, scaleY, texture, ao.getSideVertexAO(true, true, false));
                 stream.vertex(xP, yN, zP, 1f, 0f, 0f, 0f, 0f, texture, ao.getSideVertexAO(true, false, true));
-                stream.vertex(xP, yN, zN, 1f, 0f, 0f, 1f, 0f, texture, ao.getSideVertexAO(true, false, false));
-                stream.vertex(xP, yP, zP, 1f, 0f, 0f, 0f, 1f, texture, ao.getSideVertexAO(true, true, true));
+                stream.vertex(xP, yN, zN, 1f, 0f, 0f, scaleZ, 0f, texture, ao.getSideVertexAO(true, false, false));
+                stream.vertex(xP, yP, zP, 1f, 0f, 0f, 0f, scaleY, texture, ao.getSideVertexAO(true, true, true));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 3, 2, 2, 3, 1);
                 } else {
@@ -108,10 +109,10 @@ public class BlockFacesVertices {
                 return;
             }
             case WEST -> {
-                stream.vertex(xN, yP, zN, -1f, 0f, 0f, 0f, 1f, texture, ao.getSideVertexAO(false, true, false));
+                stream.vertex(xN, yP, zN, -1f, 0f, 0f, 0f, scaleY, texture, ao.getSideVertexAO(false, true, false));
                 stream.vertex(xN, yN, zN, -1f, 0f, 0f, 0f, 0f, texture, ao.getSideVertexAO(false, false, false));
-                stream.vertex(xN, yN, zP, -1f, 0f, 0f, 1f, 0f, texture, ao.getSideVertexAO(false, false, true));
-                stream.vertex(xN, yP, zP, -1f, 0f, 0f, 1f, 1f, texture, ao.getSideVertexAO(false, true, true));
+                stream.vertex(xN, yN, zP, -1f, 0f, 0f, scaleZ, 0f, texture, ao.getSideVertexAO(false, false, true));
+                stream.vertex(xN, yP, zP, -1f, 0f, 0f, scaleZ, scaleY, texture, ao.getSideVertexAO(false, true, true));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 1, 3, 1, 2, 3);
                 } else {
@@ -121,9 +122,9 @@ public class BlockFacesVertices {
             }
             case TOP -> {
                 stream.vertex(xN, yP, zP, 0f, 1f, 0f, 0f, 0f, texture, ao.getSideVertexAO(false, true, true));
-                stream.vertex(xP, yP, zP, 0f, 1f, 0f, 1f, 0f, texture, ao.getSideVertexAO(true, true, true));
-                stream.vertex(xN, yP, zN, 0f, 1f, 0f, 0f, 1f, texture, ao.getSideVertexAO(false, true, false));
-                stream.vertex(xP, yP, zN, 0f, 1f, 0f, 1f, 1f, texture, ao.getSideVertexAO(true, true, false));
+                stream.vertex(xP, yP, zP, 0f, 1f, 0f, scaleX, 0f, texture, ao.getSideVertexAO(true, true, true));
+                stream.vertex(xN, yP, zN, 0f, 1f, 0f, 0f, scaleZ, texture, ao.getSideVertexAO(false, true, false));
+                stream.vertex(xP, yP, zN, 0f, 1f, 0f, scaleX, scaleZ, texture, ao.getSideVertexAO(true, true, false));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 3, 2, 0, 1, 3);
                 } else {
@@ -132,10 +133,10 @@ public class BlockFacesVertices {
                 return;
             }
             case BOTTOM -> {
-                stream.vertex(xN, yN, zP, 0f, -1f, 0f, 0f, 1f, texture, ao.getSideVertexAO(false, false, true));
+                stream.vertex(xN, yN, zP, 0f, -1f, 0f, 0f, scaleZ, texture, ao.getSideVertexAO(false, false, true));
                 stream.vertex(xN, yN, zN, 0f, -1f, 0f, 0f, 0f, texture, ao.getSideVertexAO(false, false, false));
-                stream.vertex(xP, yN, zP, 0f, -1f, 0f, 1f, 1f, texture, ao.getSideVertexAO(true, false, true));
-                stream.vertex(xP, yN, zN, 0f, -1f, 0f, 1f, 0f, texture, ao.getSideVertexAO(true, false, false));
+                stream.vertex(xP, yN, zP, 0f, -1f, 0f, scaleX, scaleZ, texture, ao.getSideVertexAO(true, false, true));
+                stream.vertex(xP, yN, zN, 0f, -1f, 0f, scaleX, 0f, texture, ao.getSideVertexAO(true, false, false));
                 if (ao.generateFlippedQuad()) {
                     stream.quad(0, 3, 2, 0, 1, 3);
                 } else {
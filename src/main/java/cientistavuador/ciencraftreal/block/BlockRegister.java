@@ -35,6 +35,9 @@ public class BlockRegister {
     public static final int MAX_AMOUNT_OF_BLOCKS = 256;
 
     private static final Block[] blocks = new Block[MAX_AMOUNT_OF_BLOCKS];
+    //properties of the registered blocks by id, read by the meshing loops instead of calling the block
+    private static final boolean[] opaque = new boolean[MAX_AMOUNT_OF_BLOCKS];
+    private static final boolean[] aoSolid = new boolean[MAX_AMOUNT_OF_BLOCKS];
     private static int currentId = 1;
 
     public static Block getBlock(int id) {
@@ -49,10 +52,21 @@ public class BlockRegister {
             throw new RuntimeException("Out of Blocks IDs space!");
         }
         blocks[currentId] = block;
+        opaque[currentId] = !block.getBlockTransparency().isTransparent();
+        aoSolid[currentId] = block.isAOSolid();
         block.setId(currentId);
         return currentId++;
     }
 
+    //air (id 0) is neither opaque nor ao solid
+    public static boolean isOpaque(int id) {
+        return opaque[id];
+    }
+
+    public static boolean isAOSolid(int id) {
+        return aoSolid[id];
+    }
+
     public static int numberOfRegisteredBlocks() {
         return currentId;
     }
@@ -38,6 +38,8 @@ public enum BlockSide {
     TOP(4), // °
     BOTTOM(5); // _
     
+    public static final int NUMBER_OF_SIDES = 6;
+    
     public static BlockSide sideOf(int index) {
         return switch (index) {
             case 0 -> NORTH;
@@ -26,6 +26,8 @@
  */
 package cientistavuador.ciencraftreal.block;
 
+import cientistavuador.ciencraftreal.Main;
+
 /**
  * @author Shinoa Hiragi
  * @author Cien
@@ -73,8 +75,12 @@ public class BlockTextures {
     public static final int GL_TEXTURE_ARRAY;
     
     static {
-        BlockTextureLoader.loadTextures();
-        GL_TEXTURE_ARRAY = BlockTextureLoader.getGLTextureArray();
+        if (Main.HEADLESS) {
+            GL_TEXTURE_ARRAY = 0;
+        } else {
+            BlockTextureLoader.loadTextures();
+            GL_TEXTURE_ARRAY = BlockTextureLoader.getGLTextureArray();
+        }
     }
     
     public static void init() {
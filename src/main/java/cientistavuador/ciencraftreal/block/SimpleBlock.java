@@ -27,6 +27,8 @@
 package cientistavuador.ciencraftreal.block;
 
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.NeighborhoodBuffer;
 import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesStream;
 import java.util.Arrays;
 
@@ -93,6 +95,12 @@ public abstract class SimpleBlock implements Block, SolidBlockCheck {
         return sideTextures[side.index()];
     }
 
+    //faces of opaque simple blocks are merged by the greedy mesher instead of generateVertices,
+    //blocks that change the way their faces are generated must return false
+    public boolean canMergeFaces() {
+        return BlockTransparency.LIKE_SOLID.equals(getBlockTransparency());
+    }
+
     @Override
     public BlockTransparency getBlockTransparency() {
         return BlockTransparency.LIKE_SOLID;
@@ -112,32 +120,45 @@ public abstract class SimpleBlock implements Block, SolidBlockCheck {
     }
 
     @Override
-    public void generateVertices(VerticesStream stream, Chunk chunk, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
-        boolean[] sides = isSolidBlockSides(chunk, chunkBlockX, chunkBlockY, chunkBlockZ);
-        
-        boolean empty = true;
-        for (int i = 0; i < sides.length; i++) {
-            if (!sides[i]) {
-                empty = false;
-                break;
-            }
-        }
-        if (empty) {
+    public void generateVertices(VerticesStream stream, ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        int solidSides = solidBlockSidesMask(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ);
+        if (solidSides == ALL_SIDES_SOLID) {
             return;
         }
 
-        float chunkX = chunkBlockX + 0.5f;
-        float chunkY = chunkBlockY + 0.5f;
-        float chunkZ = chunkBlockZ - 0.5f;
-        
         AmbientOcclusion ao = null;
         if (hasAO()) {
             ao = new AmbientOcclusion();
-            ao.setBlock(chunk, chunkBlockX, chunkBlockY, chunkBlockZ);
+            ao.setBlock(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ);
         }
+
+        generateFaces(stream, solidSides, ao, chunkBlockX, chunkBlockY, chunkBlockZ);
+    }
+
+    @Override
+    public void generateVertices(VerticesStream stream, NeighborhoodBuffer blocks, AmbientOcclusion ao, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        int solidSides = solidBlockSidesMask(blocks, blocks.index(chunkBlockX, chunkBlockY, chunkBlockZ));
+        if (solidSides == ALL_SIDES_SOLID) {
+            return;
+        }
+
+        if (hasAO()) {
+            ao.setBlock(blocks, chunkBlockX, chunkBlockY, chunkBlockZ);
+        } else {
+            ao = null;
+        }
+
+        generateFaces(stream, solidSides, ao, chunkBlockX, chunkBlockY, chunkBlockZ);
+    }
+
+    //ao is null for blocks without ao
+    private void generateFaces(VerticesStream stream, int solidSides, AmbientOcclusion ao, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        float chunkX = chunkBlockX + 0.5f;
+        float chunkY = chunkBlockY + 0.5f;
+        float chunkZ = chunkBlockZ - 0.5f;
         
-        for (int i = 0; i < sides.length; i++) {
-            if (sides[i]) {
+        for (int i = 0; i < BlockSide.NUMBER_OF_SIDES; i++) {
+            if ((solidSides & (1 << i)) != 0) {
                 continue;
             }
             BlockSide side = BlockSide.sideOf(i);
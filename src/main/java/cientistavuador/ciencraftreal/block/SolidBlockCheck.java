@@ -27,12 +27,16 @@
 package cientistavuador.ciencraftreal.block;
 
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.NeighborhoodBuffer;
 
 /**
  *
  * @author Cien
  */
 public interface SolidBlockCheck {
+    public static final int ALL_SIDES_SOLID = 0b111111;
+    
     public default boolean isSolidBlock(Block block) {
         return block != Blocks.AIR && !block.getBlockTransparency().isTransparent();
     }
@@ -53,4 +57,49 @@ public interface SolidBlockCheck {
             isSolidBlock(chunk, chunkBlockX, chunkBlockY - 1, chunkBlockZ) //bottom
         };
     }
+    //overrides of isSolidBlock(Block) may only add solid blocks, opaque neighbors are solid without asking the block
+    public default boolean isSolidBlock(int id) {
+        if (BlockRegister.isOpaque(id)) {
+            return true;
+        }
+        if (id == 0) {
+            return false;
+        }
+        return isSolidBlock(BlockRegister.getBlock(id));
+    }
+    public default boolean isSolidBlock(ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        return isSolidBlock(snapshot.getBlockId(chunkBlockX, chunkBlockY, chunkBlockZ));
+    }
+    //bit side.index() is set if that side is covered by a solid block
+    public default int solidBlockSidesMask(ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        int mask = 0;
+        if (isSolidBlock(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ - 1)) mask |= 1 << 0; //north
+        if (isSolidBlock(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ + 1)) mask |= 1 << 1; //south
+        if (isSolidBlock(snapshot, chunkBlockX + 1, chunkBlockY, chunkBlockZ)) mask |= 1 << 2; //east
+        if (isSolidBlock(snapshot, chunkBlockX - 1, chunkBlockY, chunkBlockZ)) mask |= 1 << 3; //west
+        if (isSolidBlock(snapshot, chunkBlockX, chunkBlockY + 1, chunkBlockZ)) mask |= 1 << 4; //top
+        if (isSolidBlock(snapshot, chunkBlockX, chunkBlockY - 1, chunkBlockZ)) mask |= 1 << 5; //bottom
+        return mask;
+    }
+    //index of the block in the buffer
+    public default int solidBlockSidesMask(NeighborhoodBuffer blocks, int index) {
+        int mask = 0;
+        if (isSolidBlock(blocks.getBlockId(index - NeighborhoodBuffer.STEP_Z))) mask |= 1 << 0; //north
+        if (isSolidBlock(blocks.getBlockId(index + NeighborhoodBuffer.STEP_Z))) mask |= 1 << 1; //south
+        if (isSolidBlock(blocks.getBlockId(index + NeighborhoodBuffer.STEP_X))) mask |= 1 << 2; //east
+        if (isSolidBlock(blocks.getBlockId(index - NeighborhoodBuffer.STEP_X))) mask |= 1 << 3; //west
+        if (isSolidBlock(blocks.getBlockId(index + NeighborhoodBuffer.STEP_Y))) mask |= 1 << 4; //top
+        if (isSolidBlock(blocks.getBlockId(index - NeighborhoodBuffer.STEP_Y))) mask |= 1 << 5; //bottom
+        return mask;
+    }
+    public default boolean[] isSolidBlockSides(ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        return new boolean[] {
+            isSolidBlock(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ - 1), //north
+            isSolidBlock(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ + 1), //south
+            isSolidBlock(snapshot, chunkBlockX + 1, chunkBlockY, chunkBlockZ), //east
+            isSolidBlock(snapshot, chunkBlockX - 1, chunkBlockY, chunkBlockZ), //west
+            isSolidBlock(snapshot, chunkBlockX, chunkBlockY + 1, chunkBlockZ), //top
+            isSolidBlock(snapshot, chunkBlockX, chunkBlockY - 1, chunkBlockZ) //bottom
+        };
+    }
 }
@@ -26,6 +26,7 @@
  */
 package cientistavuador.ciencraftreal.block.blocks;
 
+import cientistavuador.ciencraftreal.block.AmbientOcclusion;
 import cientistavuador.ciencraftreal.block.Block;
 import cientistavuador.ciencraftreal.block.BlockFacesVertices;
 import cientistavuador.ciencraftreal.block.BlockSide;
@@ -41,6 +42,8 @@ import cientistavuador.ciencraftreal.block.SolidBlockCheck;
 import cientistavuador.ciencraftreal.block.StateOfMatter;
 import cientistavuador.ciencraftreal.block.material.BlockMaterial;
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.NeighborhoodBuffer;
 import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesStream;
 
 /**
@@ -113,17 +116,17 @@ public class Water implements Block, SolidBlockCheck {
     }
 
     @Override
-    public void generateVertices(VerticesStream stream, Chunk chunk, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
-        boolean[] sides = isSolidBlockSides(chunk, chunkBlockX, chunkBlockY, chunkBlockZ);
-        
-        boolean empty = true;
-        for (int i = 0; i < sides.length; i++) {
-            if (!sides[i]) {
-                empty = false;
-                break;
-            }
-        }
-        if (empty) {
+    public void generateVertices(VerticesStream stream, ChunkSnapshot snapshot, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        generateFaces(stream, solidBlockSidesMask(snapshot, chunkBlockX, chunkBlockY, chunkBlockZ), chunkBlockX, chunkBlockY, chunkBlockZ);
+    }
+
+    @Override
+    public void generateVertices(VerticesStream stream, NeighborhoodBuffer blocks, AmbientOcclusion ao, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        generateFaces(stream, solidBlockSidesMask(blocks, blocks.index(chunkBlockX, chunkBlockY, chunkBlockZ)), chunkBlockX, chunkBlockY, chunkBlockZ);
+    }
+
+    private void generateFaces(VerticesStream stream, int solidSides, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        if (solidSides == ALL_SIDES_SOLID) {
             return;
         }
 
@@ -131,8 +134,8 @@ public class Water implements Block, SolidBlockCheck {
         float chunkY = chunkBlockY + 0.5f;
         float chunkZ = chunkBlockZ - 0.5f;
         
-        for (int i = 0; i < sides.length; i++) {
-            if (sides[i]) {
+        for (int i = 0; i < BlockSide.NUMBER_OF_SIDES; i++) {
+            if ((solidSides & (1 << i)) != 0) {
                 continue;
             }
             BlockSide side = BlockSide.sideOf(i);
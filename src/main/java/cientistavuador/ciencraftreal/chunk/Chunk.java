@@ -28,9 +28,12 @@ package cientistavuador.ciencraftreal.chunk;
 
 import cientistavuador.ciencraftreal.block.Block;
 import cientistavuador.ciencraftreal.block.BlockRegister;
+import cientistavuador.ciencraftreal.block.BlockTransparency;
 import cientistavuador.ciencraftreal.block.Blocks;
 import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayers;
 import cientistavuador.ciencraftreal.world.WorldCamera;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  *
@@ -53,79 +56,264 @@ public class Chunk {
     }
     
     public static final int CHUNK_SIZE = 32;
-    public static final int CHUNK_HEIGHT = 128;
+    public static final int CHUNK_HEIGHT = 512;
+    //version 2 added the generated state
+    public static final int SERIALIZATION_VERSION = 2;
+    
+    //what is known about the blocks the generator produced: nothing (chunks saved before version 2),
+    //that they are the current blocks (not edited since generation) or only their hash
+    public static final int GENERATED_UNKNOWN = 0;
+    public static final int GENERATED_CURRENT = 1;
+    public static final int GENERATED_HASHED = 2;
+    
+    public static final int NEIGHBOR_POSITIVE_X = 1 << 0;
+    public static final int NEIGHBOR_NEGATIVE_X = 1 << 1;
+    public static final int NEIGHBOR_POSITIVE_Z = 1 << 2;
+    public static final int NEIGHBOR_NEGATIVE_Z = 1 << 3;
+    public static final int ALL_NEIGHBORS = NEIGHBOR_POSITIVE_X | NEIGHBOR_NEGATIVE_X | NEIGHBOR_POSITIVE_Z | NEIGHBOR_NEGATIVE_Z;
 
     private final WorldCamera world;
     private final int chunkX;
     private final int chunkZ;
 
-    private final byte[] blocks = new byte[CHUNK_SIZE * CHUNK_SIZE * CHUNK_HEIGHT];
-    private final int[] blocksInHeight = new int[CHUNK_HEIGHT];
+    private final ChunkSection[] sections = new ChunkSection[CHUNK_HEIGHT / ChunkSection.HEIGHT];
     private final ChunkLayers layers;
     
+    private final int[] heightmap = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final int[] surfaceHeightmap = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final int[] columnsWithHeight = new int[CHUNK_HEIGHT + 1];
+    
     private int highestY = 0;
+    private int lowestSurfaceHeight = 0;
+    private boolean lowestSurfaceHeightValid = true;
+    private boolean modified = false;
+    private int generatedState = GENERATED_UNKNOWN;
+    private long generatedHash = 0;
+    private volatile int neighbors = 0;
+    private long submitTime = 0;
 
     public Chunk(WorldCamera world, int chunkX, int chunkZ) {
         this.world = world;
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
         this.layers = new ChunkLayers(this);
+        this.columnsWithHeight[0] = CHUNK_SIZE * CHUNK_SIZE;
+    }
+    
+    private static int sectionIndex(int x, int y, int z) {
+        return x + (-z * CHUNK_SIZE) + ((y % ChunkSection.HEIGHT) * CHUNK_SIZE * CHUNK_SIZE);
+    }
+    
+    private static int columnIndex(int x, int z) {
+        return x + (-z * CHUNK_SIZE);
+    }
+    
+    private static boolean isSurfaceBlock(int id) {
+        return id != 0 && !BlockTransparency.LIKE_COLORED_GLASS.equals(BlockRegister.getBlock(id).getBlockTransparency());
+    }
+    
+    private int findHeight(int x, int z, int start, boolean surface) {
+        for (int y = start; y >= 0; y--) {
+            ChunkSection section = this.sections[y / ChunkSection.HEIGHT];
+            if (section == null) {
+                y -= (y % ChunkSection.HEIGHT);
+                continue;
+            }
+            int id = section.get(sectionIndex(x, y, z));
+            if (surface ? isSurfaceBlock(id) : id != 0) {
+                return y + 1;
+            }
+        }
+        return 0;
+    }
+    
+    private void setHeight(int column, int height) {
+        int previous = this.heightmap[column];
+        if (previous == height) {
+            return;
+        }
+        this.heightmap[column] = height;
+        this.columnsWithHeight[previous]--;
+        this.columnsWithHeight[height]++;
+        if (height - 1 > this.highestY) {
+            this.highestY = height - 1;
+        } else if (previous - 1 == this.highestY) {
+            findHighestY();
+        }
+    }
+    
+    private void findHighestY() {
+        for (int height = this.highestY + 1; height > 0; height--) {
+            if (this.columnsWithHeight[height] != 0) {
+                this.highestY = height - 1;
+                return;
+            }
+        }
+        this.highestY = 0;
+    }
+    
+    private void updateHeightmaps(int x, int y, int z, int previous, int id) {
+        int column = columnIndex(x, z);
+        
+        int height = this.heightmap[column];
+        if (id != 0) {
+            if (y >= height) {
+                setHeight(column, y + 1);
+            }
+        } else if (y + 1 == height) {
+            setHeight(column, findHeight(x, z, y - 1, false));
+        }
+        
+        int surfaceHeight = this.surfaceHeightmap[column];
+        if (isSurfaceBlock(id)) {
+            if (y >= surfaceHeight) {
+                this.surfaceHeightmap[column] = y + 1;
+                this.lowestSurfaceHeightValid = false;
+            }
+        } else if (y + 1 == surfaceHeight && isSurfaceBlock(previous)) {
+            this.surfaceHeightmap[column] = findHeight(x, z, y - 1, true);
+            this.lowestSurfaceHeightValid = false;
+        }
+    }
+    
+    private void rebuildHeightmaps() {
+        Arrays.fill(this.columnsWithHeight, 0);
+        for (int z = 0; z > -CHUNK_SIZE; z--) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int column = columnIndex(x, z);
+                int height = findHeight(x, z, CHUNK_HEIGHT - 1, false);
+                this.heightmap[column] = height;
+                this.surfaceHeightmap[column] = findHeight(x, z, height - 1, true);
+                this.columnsWithHeight[height]++;
+            }
+        }
+        this.highestY = CHUNK_HEIGHT - 1;
+        findHighestY();
+        this.lowestSurfaceHeightValid = false;
     }
     
-    private void setBlockImpl(int x, int y, int z, Block block) {
-        int index = x + (-z * CHUNK_SIZE) + (y * CHUNK_SIZE * CHUNK_SIZE);
+    private boolean setBlockImpl(int x, int y, int z, Block block, boolean invalidateLayers) {
+        int sectionY = y / ChunkSection.HEIGHT;
+        ChunkSection section = this.sections[sectionY];
         
         boolean removing = (Blocks.AIR == block);
-        byte blockAtIndex = this.blocks[index];
-
-        if (removing && blockAtIndex == 0) {
-            return;
+        int id = (removing ? 0 : block.getId());
+        
+        int index = sectionIndex(x, y, z);
+        
+        if (this.generatedState == GENERATED_CURRENT && (section == null ? 0 : section.get(index)) != id) {
+            //first edit since generation, keep only the hash of the generated blocks
+            this.generatedHash = contentHash();
+            this.generatedState = GENERATED_HASHED;
         }
+        
+        if (section == null) {
+            if (removing) {
+                return false;
+            }
+            section = new ChunkSection();
+            this.sections[sectionY] = section;
+        }
+        
+        int previous = section.set(index, id);
 
-        boolean removingAndPlacing = !removing && blockAtIndex != 0;
-
-        if (removing) {
-            this.blocks[index] = 0;
-            this.blocksInHeight[y]--;
+        if (previous == id) {
+            return false;
+        }
 
-            if (y == this.highestY && this.blocksInHeight[y] == 0) {
-                if (this.highestY != 0) {
-                    this.highestY--;
-                    for (int i = this.highestY; i >= 0; i--) {
-                        this.highestY = i;
-                        if (this.blocksInHeight[i] != 0) {
-                            break;
-                        }
-                    }
-                }
+        if (removing && section.isEmpty()) {
+            this.sections[sectionY] = null;
+        }
+        
+        updateHeightmaps(x, y, z, previous, id);
+        
+        this.modified = true;
+        
+        if (invalidateLayers) {
+            this.layers.layerAtY(y).delete(true);
+            if (y < (CHUNK_HEIGHT-1)) {
+                this.layers.layerAtY(y+1).delete(true);
             }
-        } else {
-            this.blocks[index] = (byte) block.getId();
-
-            if (!removingAndPlacing) {
-                this.blocksInHeight[y]++;
-                if (y > this.highestY) {
-                    this.highestY = y;
-                }
+            if (y > 0) {
+                this.layers.layerAtY(y-1).delete(true);
             }
         }
         
-        this.layers.layerAtY(y).delete(true);
-        if (y < (CHUNK_HEIGHT-1)) {
-            this.layers.layerAtY(y+1).delete(true);
+        return true;
+    }
+    
+    public void setBlock(int x, int y, int z, Block block) {
+        setBlockImpl(x, y, z, block, true);
+    }
+    
+    public boolean setBlockWithoutInvalidation(int x, int y, int z, Block block) {
+        return setBlockImpl(x, y, z, block, false);
+    }
+    
+    //generator only, skips the heightmaps and the layers, call finishGeneration when done
+    public void setGeneratedBlock(int x, int y, int z, Block block) {
+        int sectionY = y / ChunkSection.HEIGHT;
+        ChunkSection section = this.sections[sectionY];
+        
+        boolean removing = (Blocks.AIR == block);
+        int id = (removing ? 0 : block.getId());
+        
+        if (section == null) {
+            if (removing) {
+                return;
+            }
+            section = new ChunkSection();
+            this.sections[sectionY] = section;
         }
-        if (y > 0) {
-            this.layers.layerAtY(y-1).delete(true);
+        
+        section.set(sectionIndex(x, y, z), id);
+        
+        if (removing && section.isEmpty()) {
+            this.sections[sectionY] = null;
         }
     }
     
-    public void setBlock(int x, int y, int z, Block block) {
-        setBlockImpl(x, y, z, block);
+    //generator only, fills a column from fromY to toY (inclusive), call finishGeneration when done
+    public void fillGeneratedColumn(int x, int z, int fromY, int toY, Block block) {
+        fromY = Math.max(fromY, 0);
+        toY = Math.min(toY, CHUNK_HEIGHT - 1);
+        
+        boolean removing = (Blocks.AIR == block);
+        int id = (removing ? 0 : block.getId());
+        int column = columnIndex(x, z);
+        
+        for (int y = fromY; y <= toY; y = ((y / ChunkSection.HEIGHT) + 1) * ChunkSection.HEIGHT) {
+            int sectionY = y / ChunkSection.HEIGHT;
+            int sectionToY = Math.min(toY, ((sectionY + 1) * ChunkSection.HEIGHT) - 1);
+            
+            ChunkSection section = this.sections[sectionY];
+            if (section == null) {
+                if (removing) {
+                    continue;
+                }
+                section = new ChunkSection();
+                this.sections[sectionY] = section;
+            }
+            
+            section.fillColumn(column, y % ChunkSection.HEIGHT, sectionToY % ChunkSection.HEIGHT, id);
+            
+            if (removing && section.isEmpty()) {
+                this.sections[sectionY] = null;
+            }
+        }
+    }
+    
+    public void finishGeneration() {
+        rebuildHeightmaps();
+        this.modified = true;
     }
     
     private Block getBlockImpl(int x, int y, int z) {
-        int index = x + (-z * CHUNK_SIZE) + (y * CHUNK_SIZE * CHUNK_SIZE);
-        return BlockRegister.getBlock(Byte.toUnsignedInt(this.blocks[index]));
+        ChunkSection section = this.sections[y / ChunkSection.HEIGHT];
+        if (section == null) {
+            return Blocks.AIR;
+        }
+        return BlockRegister.getBlock(section.get(sectionIndex(x, y, z)));
     }
     
     public Block getBlock(int x, int y, int z) {
@@ -133,12 +321,186 @@ public class Chunk {
     }
     
     public int getAmountOfBlocksInY(int y) {
-        return this.blocksInHeight[y];
+        ChunkSection section = this.sections[y / ChunkSection.HEIGHT];
+        if (section == null) {
+            return 0;
+        }
+        return section.getAmountOfBlocksInY(y % ChunkSection.HEIGHT);
     }
     
     public int getHighestY() {
         return highestY;
     }
+    
+    public int getHeight(int x, int z) {
+        return this.heightmap[columnIndex(x, z)];
+    }
+    
+    public int getSurfaceHeight(int x, int z) {
+        return this.surfaceHeightmap[columnIndex(x, z)];
+    }
+    
+    public int getLowestSurfaceHeight() {
+        if (!this.lowestSurfaceHeightValid) {
+            int lowest = CHUNK_HEIGHT;
+            for (int i = 0; i < this.surfaceHeightmap.length; i++) {
+                lowest = Math.min(lowest, this.surfaceHeightmap[i]);
+            }
+            this.lowestSurfaceHeight = lowest;
+            this.lowestSurfaceHeightValid = true;
+        }
+        return this.lowestSurfaceHeight;
+    }
+    
+    public int getNumberOfSections() {
+        return this.sections.length;
+    }
+    
+    public ChunkSection getSection(int index) {
+        return this.sections[index];
+    }
+    
+    public ChunkSection getSectionAtY(int y) {
+        return this.sections[y / ChunkSection.HEIGHT];
+    }
+    
+    public boolean isSectionEmpty(int index) {
+        ChunkSection section = this.sections[index];
+        return section == null || section.isEmpty();
+    }
+    
+    public int getNeighbors() {
+        return neighbors;
+    }
+    
+    public boolean hasNeighbor(int neighbor) {
+        return (this.neighbors & neighbor) != 0;
+    }
+    
+    public boolean hasAllNeighbors() {
+        return this.neighbors == ALL_NEIGHBORS;
+    }
+    
+    public void setNeighbor(int neighbor, boolean present) {
+        if (present) {
+            this.neighbors |= neighbor;
+        } else {
+            this.neighbors &= ~neighbor;
+        }
+    }
+    
+    //when the load job of the chunk was submitted, 0 once the chunk was visible
+    public long getSubmitTime() {
+        return submitTime;
+    }
+
+    public void setSubmitTime(long submitTime) {
+        this.submitTime = submitTime;
+    }
+    
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+    
+    public long contentHash() {
+        long hash = 0;
+        for (ChunkSection section : this.sections) {
+            hash = (hash * 31) + (section == null ? 0 : section.contentHash());
+        }
+        return hash;
+    }
+    
+    //the blocks are the generator output, the first edit hashes them so an edited chunk
+    //can be compared with its generated state without generating it again
+    public void markGenerated() {
+        this.generatedState = GENERATED_CURRENT;
+        this.generatedHash = 0;
+        this.modified = false;
+    }
+    
+    //false if the generated state is unknown
+    public boolean matchesGenerated() {
+        return switch (this.generatedState) {
+            case GENERATED_CURRENT -> true;
+            case GENERATED_HASHED -> contentHash() == this.generatedHash;
+            default -> false;
+        };
+    }
+    
+    public int getSerializedSize() {
+        int size = 2 + 1 + Long.BYTES;
+        for (ChunkSection section : this.sections) {
+            size++;
+            if (section != null) {
+                size += section.getSerializedSize();
+            }
+        }
+        return size;
+    }
+    
+    public void write(ByteBuffer out) {
+        out.put((byte) SERIALIZATION_VERSION);
+        out.put((byte) this.sections.length);
+        out.put((byte) this.generatedState);
+        out.putLong(this.generatedHash);
+        for (ChunkSection section : this.sections) {
+            if (section == null) {
+                out.put((byte) 0);
+                continue;
+            }
+            out.put((byte) 1);
+            section.write(out);
+        }
+    }
+    
+    public void read(ByteBuffer in) {
+        int version = in.get();
+        if (version != 1 && version != SERIALIZATION_VERSION) {
+            throw new IllegalArgumentException("Unsupported chunk version: " + version);
+        }
+        int numberOfSections = in.get() & 0xFF;
+        if (numberOfSections > this.sections.length) {
+            throw new IllegalArgumentException("Expected at most " + this.sections.length + " sections, found " + numberOfSections);
+        }
+        if (version == 1) {
+            this.generatedState = GENERATED_UNKNOWN;
+            this.generatedHash = 0;
+        } else {
+            int generated = in.get();
+            if (generated != GENERATED_UNKNOWN && generated != GENERATED_CURRENT && generated != GENERATED_HASHED) {
+                throw new IllegalArgumentException("Invalid generated state: " + generated);
+            }
+            this.generatedState = generated;
+            this.generatedHash = in.getLong();
+        }
+        for (int i = 0; i < this.sections.length; i++) {
+            if (i >= numberOfSections || in.get() == 0) {
+                this.sections[i] = null;
+                continue;
+            }
+            ChunkSection section = ChunkSection.read(in);
+            this.sections[i] = (section.isEmpty() ? null : section);
+        }
+        rebuildHeightmaps();
+        this.modified = false;
+    }
+    
+    public int getMemoryUsage() {
+        int usage = ChunkSection.ARRAY_OVERHEAD + (this.sections.length * Integer.BYTES);
+        usage += ChunkSection.ARRAY_OVERHEAD + (this.heightmap.length * Integer.BYTES);
+        usage += ChunkSection.ARRAY_OVERHEAD + (this.surfaceHeightmap.length * Integer.BYTES);
+        usage += ChunkSection.ARRAY_OVERHEAD + (this.columnsWithHeight.length * Integer.BYTES);
+        for (ChunkSection section : this.sections) {
+            if (section != null) {
+                usage += section.getMemoryUsage();
+            }
+        }
+        return usage;
+    }
 
     public WorldCamera getWorld() {
         return world;
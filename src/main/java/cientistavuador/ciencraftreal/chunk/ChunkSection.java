@@ -0,0 +1,463 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @author Cien
+ */
+public class ChunkSection {
+
+    public static final int HEIGHT = 32;
+    public static final int BLOCKS_PER_Y = Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE;
+    public static final int NUMBER_OF_BLOCKS = BLOCKS_PER_Y * HEIGHT;
+    public static final int DIRECT_BITS = 8;
+
+    //object header + fields, used by the memory reports
+    public static final int OBJECT_OVERHEAD = 16;
+    public static final int ARRAY_OVERHEAD = 16;
+
+    private static int nextBits(int bits) {
+        return switch (bits) {
+            case 0 -> 1;
+            case 1 -> 2;
+            case 2 -> 4;
+            case 4 -> DIRECT_BITS;
+            default -> throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        };
+    }
+
+    private static class Storage {
+
+        private final int bits;
+        private final int valueMask;
+        private final int indexShift;
+        private final int indexMask;
+        private final byte[] palette;
+        private final long[] data;
+        private final int[] counts;
+        private final int[] blocksInY;
+        private int paletteSize;
+        private int amountOfBlocks;
+        private boolean shared = false;
+
+        public Storage(int bits, byte[] palette, int paletteSize) {
+            this.bits = bits;
+            this.valueMask = (1 << bits) - 1;
+            if (bits == 0) {
+                this.indexShift = 0;
+                this.indexMask = 0;
+                this.data = null;
+                this.counts = null;
+                this.blocksInY = null;
+                this.amountOfBlocks = (palette[0] == 0 ? 0 : NUMBER_OF_BLOCKS);
+            } else {
+                int valuesPerLong = Long.SIZE / bits;
+                this.indexShift = Integer.numberOfTrailingZeros(valuesPerLong);
+                this.indexMask = valuesPerLong - 1;
+                this.data = new long[NUMBER_OF_BLOCKS / valuesPerLong];
+                this.counts = new int[1 << bits];
+                this.blocksInY = new int[HEIGHT];
+            }
+            this.palette = palette;
+            this.paletteSize = paletteSize;
+        }
+
+        public Storage(Storage other) {
+            this.bits = other.bits;
+            this.valueMask = other.valueMask;
+            this.indexShift = other.indexShift;
+            this.indexMask = other.indexMask;
+            this.palette = (other.palette == null ? null : other.palette.clone());
+            this.data = (other.data == null ? null : other.data.clone());
+            this.counts = (other.counts == null ? null : other.counts.clone());
+            this.blocksInY = (other.blocksInY == null ? null : other.blocksInY.clone());
+            this.paletteSize = other.paletteSize;
+            this.amountOfBlocks = other.amountOfBlocks;
+        }
+
+        public int read(int index) {
+            if (this.data == null) {
+                return 0;
+            }
+            long word = this.data[index >>> this.indexShift];
+            return (int) (word >>> ((index & this.indexMask) * this.bits)) & this.valueMask;
+        }
+
+        public void write(int index, int value) {
+            int longIndex = index >>> this.indexShift;
+            int shift = (index & this.indexMask) * this.bits;
+            long word = this.data[longIndex];
+            word &= ~(((long) this.valueMask) << shift);
+            word |= ((long) value) << shift;
+            this.data[longIndex] = word;
+        }
+
+        public int idOf(int value) {
+            if (this.palette == null) {
+                return value;
+            }
+            return Byte.toUnsignedInt(this.palette[value]);
+        }
+
+        public int valueOf(int id) {
+            if (this.palette == null) {
+                return id;
+            }
+            byte b = (byte) id;
+            for (int i = 0; i < this.paletteSize; i++) {
+                if (this.palette[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public int addToPalette(int id) {
+            if (this.paletteSize < this.palette.length) {
+                this.palette[this.paletteSize] = (byte) id;
+                return this.paletteSize++;
+            }
+            for (int i = 0; i < this.paletteSize; i++) {
+                if (this.counts[i] == 0) {
+                    this.palette[i] = (byte) id;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public int blocksInY(int y) {
+            if (this.blocksInY == null) {
+                return (this.amountOfBlocks == 0 ? 0 : BLOCKS_PER_Y);
+            }
+            return this.blocksInY[y];
+        }
+
+        public int memoryUsage() {
+            int usage = OBJECT_OVERHEAD + 48;
+            if (this.palette != null) {
+                usage += ARRAY_OVERHEAD + this.palette.length;
+            }
+            if (this.data != null) {
+                usage += ARRAY_OVERHEAD + (this.data.length * Long.BYTES);
+            }
+            if (this.counts != null) {
+                usage += ARRAY_OVERHEAD + (this.counts.length * Integer.BYTES);
+            }
+            if (this.blocksInY != null) {
+                usage += ARRAY_OVERHEAD + (this.blocksInY.length * Integer.BYTES);
+            }
+            return usage;
+        }
+    }
+
+    //31^0 + 31^1 + ... + 31^(NUMBER_OF_BLOCKS - 1), the content hash of a uniform section divided by its id
+    private static final long UNIFORM_HASH_FACTOR;
+
+    static {
+        long factor = 0;
+        for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
+            factor = (factor * 31) + 1;
+        }
+        UNIFORM_HASH_FACTOR = factor;
+    }
+
+    private volatile Storage storage;
+
+    public ChunkSection(int id) {
+        this.storage = new Storage(0, new byte[]{(byte) id}, 1);
+    }
+
+    public ChunkSection() {
+        this(0);
+    }
+
+    private ChunkSection(Storage storage) {
+        this.storage = storage;
+    }
+
+    private void resize() {
+        Storage old = this.storage;
+        int newBits = nextBits(old.bits);
+
+        Storage resized;
+        if (newBits == DIRECT_BITS) {
+            resized = new Storage(newBits, null, 0);
+            for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
+                resized.write(i, old.idOf(old.read(i)));
+            }
+            for (int i = 0; i < old.paletteSize; i++) {
+                resized.counts[old.idOf(i)] += old.counts[i];
+            }
+        } else {
+            byte[] palette = new byte[1 << newBits];
+            System.arraycopy(old.palette, 0, palette, 0, old.paletteSize);
+            resized = new Storage(newBits, palette, old.paletteSize);
+            if (old.data != null) {
+                for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
+                    resized.write(i, old.read(i));
+                }
+                System.arraycopy(old.counts, 0, resized.counts, 0, old.counts.length);
+            } else {
+                resized.counts[0] = NUMBER_OF_BLOCKS;
+            }
+        }
+        for (int y = 0; y < HEIGHT; y++) {
+            resized.blocksInY[y] = old.blocksInY(y);
+        }
+        resized.amountOfBlocks = old.amountOfBlocks;
+
+        this.storage = resized;
+    }
+
+    private int paletteValue(int id) {
+        Storage s = this.storage;
+        int value = s.valueOf(id);
+        if (value == -1) {
+            value = s.addToPalette(id);
+            if (value == -1) {
+                resize();
+                s = this.storage;
+                value = s.valueOf(id);
+                if (value == -1) {
+                    value = s.addToPalette(id);
+                }
+            }
+        }
+        return value;
+    }
+
+    public int get(int index) {
+        Storage s = this.storage;
+        return s.idOf(s.read(index));
+    }
+
+    public int set(int index, int id) {
+        Storage s = this.storage;
+        if (s.bits == 0) {
+            if (s.palette[0] == (byte) id) {
+                return id;
+            }
+            resize();
+            s = this.storage;
+        } else if (s.shared) {
+            if (s.idOf(s.read(index)) == id) {
+                return id;
+            }
+            s = new Storage(s);
+            this.storage = s;
+        }
+
+        int value = paletteValue(id);
+        s = this.storage;
+
+        int previousValue = s.read(index);
+        if (previousValue == value) {
+            return id;
+        }
+        int previous = s.idOf(previousValue);
+        s.write(index, value);
+        s.counts[previousValue]--;
+        s.counts[value]++;
+
+        if (previous == 0 || id == 0) {
+            int y = index / BLOCKS_PER_Y;
+            int change = (id == 0 ? -1 : 1);
+            s.blocksInY[y] += change;
+            s.amountOfBlocks += change;
+        }
+
+        if (s.counts[value] == NUMBER_OF_BLOCKS) {
+            this.storage = new Storage(0, new byte[]{(byte) id}, 1);
+        }
+
+        return previous;
+    }
+
+    //sets every block of a column from fromY to toY (inclusive), the palette is only resolved once
+    public void fillColumn(int column, int fromY, int toY, int id) {
+        Storage s = this.storage;
+        if (s.bits == 0) {
+            if (s.palette[0] == (byte) id) {
+                return;
+            }
+            resize();
+        } else if (s.shared) {
+            this.storage = new Storage(s);
+        }
+
+        int value = paletteValue(id);
+        s = this.storage;
+
+        for (int y = fromY; y <= toY; y++) {
+            int index = column + (y * BLOCKS_PER_Y);
+            int previousValue = s.read(index);
+            if (previousValue == value) {
+                continue;
+            }
+            int previous = s.idOf(previousValue);
+            s.write(index, value);
+            s.counts[previousValue]--;
+            s.counts[value]++;
+
+            if (previous == 0 || id == 0) {
+                int change = (id == 0 ? -1 : 1);
+                s.blocksInY[y] += change;
+                s.amountOfBlocks += change;
+            }
+        }
+
+        if (s.counts[value] == NUMBER_OF_BLOCKS) {
+            this.storage = new Storage(0, new byte[]{(byte) id}, 1);
+        }
+    }
+
+    //shares the storage until either section is written (copy on write)
+    public ChunkSection snapshot() {
+        Storage s = this.storage;
+        s.shared = true;
+        return new ChunkSection(s);
+    }
+
+    //polynomial hash of the block ids in index order, it does not depend on the palette or the bits of the storage
+    public long contentHash() {
+        Storage s = this.storage;
+        if (s.bits == 0) {
+            return Byte.toUnsignedInt(s.palette[0]) * UNIFORM_HASH_FACTOR;
+        }
+        long hash = 0;
+        for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
+            hash = (hash * 31) + s.idOf(s.read(i));
+        }
+        return hash;
+    }
+
+    public int getAmountOfBlocks() {
+        return this.storage.amountOfBlocks;
+    }
+
+    public int getAmountOfBlocksInY(int y) {
+        return this.storage.blocksInY(y);
+    }
+
+    public boolean isEmpty() {
+        return this.storage.amountOfBlocks == 0;
+    }
+
+    public boolean isUniform() {
+        return this.storage.bits == 0;
+    }
+
+    public int getUniformId() {
+        Storage s = this.storage;
+        if (s.bits != 0) {
+            return -1;
+        }
+        return Byte.toUnsignedInt(s.palette[0]);
+    }
+
+    public int getBitsPerBlock() {
+        return this.storage.bits;
+    }
+
+    public int getPaletteSize() {
+        Storage s = this.storage;
+        if (s.palette == null) {
+            return 1 << DIRECT_BITS;
+        }
+        return s.paletteSize;
+    }
+
+    public int getMemoryUsage() {
+        return OBJECT_OVERHEAD + 8 + this.storage.memoryUsage();
+    }
+
+    public int getSerializedSize() {
+        Storage s = this.storage;
+        if (s.bits == 0) {
+            return 2;
+        }
+        int size = 1;
+        if (s.palette != null) {
+            size += 1 + s.paletteSize;
+        }
+        size += Integer.BYTES * (1 + HEIGHT + s.counts.length);
+        size += Long.BYTES * s.data.length;
+        return size;
+    }
+
+    public void write(ByteBuffer out) {
+        Storage s = this.storage;
+        out.put((byte) s.bits);
+        if (s.bits == 0) {
+            out.put(s.palette[0]);
+            return;
+        }
+        if (s.palette != null) {
+            out.put((byte) s.paletteSize);
+            out.put(s.palette, 0, s.paletteSize);
+        }
+        out.putInt(s.amountOfBlocks);
+        out.asIntBuffer().put(s.blocksInY).put(s.counts);
+        out.position(out.position() + (Integer.BYTES * (HEIGHT + s.counts.length)));
+        out.asLongBuffer().put(s.data);
+        out.position(out.position() + (Long.BYTES * s.data.length));
+    }
+
+    public static ChunkSection read(ByteBuffer in) {
+        int bits = in.get();
+        if (bits == 0) {
+            return new ChunkSection(Byte.toUnsignedInt(in.get()));
+        }
+        if (bits != 1 && bits != 2 && bits != 4 && bits != DIRECT_BITS) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+
+        Storage s;
+        if (bits == DIRECT_BITS) {
+            s = new Storage(bits, null, 0);
+        } else {
+            int paletteSize = Byte.toUnsignedInt(in.get());
+            byte[] palette = new byte[1 << bits];
+            in.get(palette, 0, paletteSize);
+            s = new Storage(bits, palette, paletteSize);
+        }
+        s.amountOfBlocks = in.getInt();
+        in.asIntBuffer().get(s.blocksInY).get(s.counts);
+        in.position(in.position() + (Integer.BYTES * (HEIGHT + s.counts.length)));
+        in.asLongBuffer().get(s.data);
+        in.position(in.position() + (Long.BYTES * s.data.length));
+
+        ChunkSection section = new ChunkSection();
+        section.storage = s;
+        return section;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk;
+
+import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.block.BlockRegister;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+
+/**
+ * Immutable view of a chunk section and the sections around it, including
+ * the ones of the neighbor chunks, so meshing can read a consistent
+ * border. Must be taken on the thread that writes to the chunks.
+ *
+ * @author Cien
+ */
+public class ChunkSnapshot {
+
+    public static ChunkSnapshot of(Chunk chunk, int sectionIndex) {
+        ChunkSnapshot snapshot = new ChunkSnapshot(chunk, sectionIndex);
+        WorldCamera world = chunk.getWorld();
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                Chunk c = chunk;
+                if (dx != 0 || dz != 0) {
+                    if (world == null) {
+                        continue;
+                    }
+                    c = world.getChunk(chunk.getChunkX() + dx, chunk.getChunkZ() + dz);
+                    if (c == null) {
+                        continue;
+                    }
+                }
+                for (int dy = -1; dy <= 1; dy++) {
+                    int index = sectionIndex + dy;
+                    if (index < 0 || index >= c.getNumberOfSections()) {
+                        continue;
+                    }
+                    ChunkSection section = c.getSection(index);
+                    if (section != null) {
+                        snapshot.sections[slot(dx, dy, dz)] = section.snapshot();
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static int slot(int dx, int dy, int dz) {
+        return (dx + 1) + ((dy + 1) * 3) + ((dz + 1) * 3 * 3);
+    }
+
+    private final Chunk chunk;
+    private final int sectionIndex;
+    private final ChunkSection[] sections = new ChunkSection[3 * 3 * 3];
+
+    private ChunkSnapshot(Chunk chunk, int sectionIndex) {
+        this.chunk = chunk;
+        this.sectionIndex = sectionIndex;
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public int getSectionIndex() {
+        return sectionIndex;
+    }
+
+    public int getY() {
+        return this.sectionIndex * ChunkSection.HEIGHT;
+    }
+
+    //chunk block coordinates, may go up to one section away from the snapshot section
+    public int getBlockId(int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        if (chunkBlockY < 0 || chunkBlockY >= Chunk.CHUNK_HEIGHT) {
+            return 0;
+        }
+
+        int dx = Math.floorDiv(chunkBlockX, Chunk.CHUNK_SIZE);
+        int dy = (chunkBlockY / ChunkSection.HEIGHT) - this.sectionIndex;
+        int dz = -Math.floorDiv(-chunkBlockZ, Chunk.CHUNK_SIZE);
+
+        ChunkSection section = this.sections[slot(dx, dy, dz)];
+        if (section == null) {
+            return 0;
+        }
+
+        int x = chunkBlockX - (dx * Chunk.CHUNK_SIZE);
+        int y = chunkBlockY % ChunkSection.HEIGHT;
+        int z = chunkBlockZ - (dz * Chunk.CHUNK_SIZE);
+
+        return section.get(x + (-z * Chunk.CHUNK_SIZE) + (y * Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE));
+    }
+
+    //dx, dy and dz from -1 to 1, null if the section is outside of the world or was not loaded
+    public ChunkSection getSection(int dx, int dy, int dz) {
+        return this.sections[slot(dx, dy, dz)];
+    }
+
+    public Block getBlock(int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        int id = getBlockId(chunkBlockX, chunkBlockY, chunkBlockZ);
+        if (id == 0) {
+            return Blocks.AIR;
+        }
+        return BlockRegister.getBlock(id);
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.generation;
+
+import cientistavuador.ciencraftreal.noise.NoiseBackends;
+import cientistavuador.ciencraftreal.world.ChunkMap;
+import java.io.PrintStream;
+
+/**
+ * Per world cache of the biome noise sampled on a coarse lattice (one sample
+ * every SPACING blocks) and bilinearly interpolated per column. Samples are
+ * kept in square tiles of TILE_SIZE blocks keyed by ChunkMap keys of the tile
+ * coordinates; the oldest tiles are evicted once maxTiles is exceeded.
+ * <p>
+ * The value of a column (x, z) approximates noise2(seed, (x + 0.5) / period,
+ * (z - 0.5) / period), the same sample position used by the generator, and
+ * is exact on the lattice points.
+ *
+ * @author Cien
+ */
+public class BiomeCache {
+
+    public static final int SPACING = 8;
+    public static final int TILE_CELLS = 32;
+    public static final int TILE_SIZE = SPACING * TILE_CELLS;
+    //the last row and column duplicate the first of the next tile, so a tile interpolates on its own
+    public static final int TILE_SAMPLES = TILE_CELLS + 1;
+    public static final int DEFAULT_MAX_TILES = 256;
+
+    private final long seed;
+    private final double period;
+    private final int maxTiles;
+
+    private final ChunkMap<float[]> tiles = new ChunkMap<>();
+    //insertion order of the tiles, used as a ring for eviction
+    private final long[] order;
+    private int orderStart = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public BiomeCache(long seed, double period, int maxTiles) {
+        if (maxTiles <= 0) {
+            throw new IllegalArgumentException("Max tiles must be positive: " + maxTiles);
+        }
+        this.seed = seed;
+        this.period = period;
+        this.maxTiles = maxTiles;
+        this.order = new long[maxTiles];
+    }
+
+    public BiomeCache(long seed, double period) {
+        this(seed, period, DEFAULT_MAX_TILES);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    public int getMaxTiles() {
+        return maxTiles;
+    }
+
+    private float[] generateTile(int tileX, int tileZ) {
+        float[] samples = new float[TILE_SAMPLES * TILE_SAMPLES];
+        NoiseBackends.get().noise2Grid(
+                this.seed,
+                (tileX * TILE_SIZE) + 0.5,
+                (tileZ * TILE_SIZE) - 0.5,
+                SPACING, SPACING,
+                this.period,
+                TILE_SAMPLES, TILE_SAMPLES,
+                samples
+        );
+        return samples;
+    }
+
+    private float[] tile(int tileX, int tileZ) {
+        long key = ChunkMap.key(tileX, tileZ);
+        synchronized (this) {
+            float[] samples = this.tiles.get(key);
+            if (samples != null) {
+                this.hits++;
+                return samples;
+            }
+            this.misses++;
+        }
+
+        //generated outside of the lock, two threads may race on the same tile but both produce the same samples
+        float[] samples = generateTile(tileX, tileZ);
+
+        synchronized (this) {
+            float[] other = this.tiles.get(key);
+            if (other != null) {
+                return other;
+            }
+            int size = this.tiles.size();
+            if (size == this.maxTiles) {
+                this.tiles.remove(this.order[this.orderStart]);
+                this.order[this.orderStart] = key;
+                this.orderStart = (this.orderStart + 1) % this.maxTiles;
+                this.evictions++;
+            } else {
+                this.order[(this.orderStart + size) % this.maxTiles] = key;
+            }
+            this.tiles.put(key, samples);
+        }
+        return samples;
+    }
+
+    private static float interpolate(float[] samples, int localX, int localZ) {
+        int cellX = localX / SPACING;
+        int cellZ = localZ / SPACING;
+        float fx = (localX % SPACING) * (1f / SPACING);
+        float fz = (localZ % SPACING) * (1f / SPACING);
+
+        int i = cellX + (cellZ * TILE_SAMPLES);
+        float a = samples[i];
+        float b = samples[i + 1];
+        float c = samples[i + TILE_SAMPLES];
+        float d = samples[i + TILE_SAMPLES + 1];
+
+        float ab = a + (b - a) * fx;
+        float cd = c + (d - c) * fx;
+        return ab + (cd - ab) * fz;
+    }
+
+    public float sample(int x, int z) {
+        int tileX = Math.floorDiv(x, TILE_SIZE);
+        int tileZ = Math.floorDiv(z, TILE_SIZE);
+        return interpolate(tile(tileX, tileZ), x - (tileX * TILE_SIZE), z - (tileZ * TILE_SIZE));
+    }
+
+    /**
+     * Fills out[i + k * w] with the value of the column (x0 + i, z0 + k).
+     */
+    public void fill(int x0, int z0, int w, int h, float[] out) {
+        int lastTileX = 0;
+        int lastTileZ = 0;
+        float[] samples = null;
+        for (int k = 0; k < h; k++) {
+            int z = z0 + k;
+            int tileZ = Math.floorDiv(z, TILE_SIZE);
+            int localZ = z - (tileZ * TILE_SIZE);
+            for (int i = 0; i < w; i++) {
+                int x = x0 + i;
+                int tileX = Math.floorDiv(x, TILE_SIZE);
+                if (samples == null || tileX != lastTileX || tileZ != lastTileZ) {
+                    samples = tile(tileX, tileZ);
+                    lastTileX = tileX;
+                    lastTileZ = tileZ;
+                }
+                out[i + (k * w)] = interpolate(samples, x - (tileX * TILE_SIZE), localZ);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.tiles.clear();
+        this.orderStart = 0;
+    }
+
+    public synchronized int size() {
+        return this.tiles.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized float getHitRate() {
+        long total = this.hits + this.misses;
+        if (total == 0) {
+            return 0f;
+        }
+        return this.hits / (float) total;
+    }
+
+    private static String format(float f) {
+        return String.format("%.2f", f);
+    }
+
+    public synchronized void print(PrintStream out) {
+        out.println("===Biome Cache===");
+        try {
+            int size = this.tiles.size();
+            out.println(size + " of " + this.maxTiles + " tile(s), " + format((size * TILE_SAMPLES * TILE_SAMPLES * Float.BYTES) / 1024f) + "KiB");
+            out.println("Hits - " + this.hits + ", Misses - " + this.misses + " (hit rate: " + format(getHitRate() * 100f) + "%)");
+            out.println("Evictions - " + this.evictions);
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+}
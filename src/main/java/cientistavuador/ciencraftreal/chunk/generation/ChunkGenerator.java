@@ -26,10 +26,33 @@
  */
 package cientistavuador.ciencraftreal.chunk.generation;
 
+import cientistavuador.ciencraftreal.chunk.Chunk;
+
 /**
  *
  * @author Cien
  */
 public interface ChunkGenerator {
-    public void generate();
+
+    public Chunk getChunk();
+
+    //first stage, may only read and write its own chunk
+    public void generateTerrain();
+
+    //second stage, runs after the terrain of the 3x3 neighborhood is done
+    //neighborhood[(x + 1) + ((z + 1) * 3)] is the generator of the chunk at offset (x, z), null if not available
+    //may read the neighbors generators but may only write to its own chunk
+    public void decorate(ChunkGenerator[] neighborhood);
+
+    //last stage
+    public void finish();
+
+    //generates the chunk alone, features from the neighbors are not placed
+    public default void generate() {
+        generateTerrain();
+        ChunkGenerator[] neighborhood = new ChunkGenerator[9];
+        neighborhood[4] = this;
+        decorate(neighborhood);
+        finish();
+    }
 }
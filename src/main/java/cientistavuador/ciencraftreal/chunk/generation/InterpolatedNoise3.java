@@ -0,0 +1,222 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.generation;
+
+/**
+ * Samples a smooth 3D field on a coarse lattice and fills in between with
+ * trilinear interpolation.
+ *
+ * @author Cien
+ */
+public class InterpolatedNoise3 {
+
+    @FunctionalInterface
+    public static interface Field {
+        /**
+         * Fills out[i + w * (j + h * k)] with the field at
+         * (x0 + i * dx, y0 + j * dy, z0 + k * dz).
+         */
+        public void sample(double x0, double y0, double z0, double dx, double dy, double dz, int w, int h, int d, float[] out);
+    }
+
+    /**
+     * Upper bound of |f_xx| + |f_yy| + |f_zz| for OpenSimplex2 3D noise at unit frequency, measured by finite differences.
+     */
+    public static final double OPENSIMPLEX2_CURVATURE = 72.0;
+    /**
+     * Largest jump of OpenSimplex2 3D noise across its small kernel discontinuities, measured by sampling.
+     */
+    public static final double OPENSIMPLEX2_DISCONTINUITY = 0.005;
+    public static final int MAX_STEP = 8;
+
+    /**
+     * Returns the worst case trilinear interpolation error of a field with the
+     * given curvature, discontinuity and feature size when sampled every step blocks.
+     */
+    public static double errorBound(double curvature, double discontinuity, double featureSize, int step) {
+        if (step <= 1) {
+            return 0.0;
+        }
+        double h = step / featureSize;
+        return ((h * h * curvature) / 8.0) + discontinuity;
+    }
+
+    /**
+     * Returns the largest power of two step, up to MAX_STEP, whose error bound
+     * does not exceed maxError.
+     */
+    public static int stepFor(double curvature, double discontinuity, double featureSize, double maxError) {
+        int step = MAX_STEP;
+        while (step > 1 && errorBound(curvature, discontinuity, featureSize, step) > maxError) {
+            step >>= 1;
+        }
+        return step;
+    }
+
+    private final Field field;
+    private final int step;
+
+    private float[] lattice = new float[0];
+    private float[] column = new float[0];
+    private int width = 0;
+    private int height = 0;
+    private int depth = 0;
+    private int latticeWidth = 0;
+    private int latticeHeight = 0;
+
+    public InterpolatedNoise3(Field field, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive.");
+        }
+        this.field = field;
+        this.step = step;
+    }
+
+    public InterpolatedNoise3(Field field, double curvature, double discontinuity, double featureSize, double maxError) {
+        this(field, stepFor(curvature, discontinuity, featureSize, maxError));
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private int latticeSize(int size) {
+        return ((size - 1 + this.step - 1) / this.step) + 1;
+    }
+
+    /**
+     * Evaluates the field for a w by h by d grid starting at (x0, y0, z0) with
+     * spacing (dx, dy, dz), only at every step-th point of each axis.
+     */
+    public void update(double x0, double y0, double z0, double dx, double dy, double dz, int w, int h, int d) {
+        this.width = w;
+        this.height = h;
+        this.depth = d;
+        this.latticeWidth = latticeSize(w);
+        this.latticeHeight = latticeSize(h);
+        int latticeDepth = latticeSize(d);
+
+        int size = this.latticeWidth * this.latticeHeight * latticeDepth;
+        if (this.lattice.length < size) {
+            this.lattice = new float[size];
+        }
+        if (this.column.length < this.latticeWidth) {
+            this.column = new float[this.latticeWidth];
+        }
+
+        this.field.sample(
+                x0, y0, z0,
+                dx * this.step, dy * this.step, dz * this.step,
+                this.latticeWidth, this.latticeHeight, latticeDepth,
+                this.lattice
+        );
+    }
+
+    private float lerp(float a, float b, float t) {
+        return a + ((b - a) * t);
+    }
+
+    private float interpolateColumn(int li, int j, int k) {
+        int lj = j / this.step;
+        int lk = k / this.step;
+        float fj = (j - (lj * this.step)) / (float) this.step;
+        float fk = (k - (lk * this.step)) / (float) this.step;
+
+        int index = li + (lj * this.latticeWidth) + (lk * this.latticeWidth * this.latticeHeight);
+
+        //points on the lattice never read past the last lattice point of an axis
+        int oy = (fj == 0f ? 0 : this.latticeWidth);
+        int oz = (fk == 0f ? 0 : this.latticeWidth * this.latticeHeight);
+
+        float[] l = this.lattice;
+        return lerp(lerp(l[index], l[index + oy], fj), lerp(l[index + oz], l[index + oy + oz], fj), fk);
+    }
+
+    /**
+     * Returns the interpolated value at grid point (i, j, k) of the last update.
+     */
+    public float sample(int i, int j, int k) {
+        int li = i / this.step;
+        float fi = (i - (li * this.step)) / (float) this.step;
+
+        float a = interpolateColumn(li, j, k);
+        if (fi == 0f) {
+            return a;
+        }
+        return lerp(a, interpolateColumn(li + 1, j, k), fi);
+    }
+
+    /**
+     * Fills out[i + w * j] with the interpolated values of slice k of the last update.
+     */
+    public void fill(int k, float[] out) {
+        float[] c = this.column;
+        for (int j = 0; j < this.height; j++) {
+            for (int li = 0; li < this.latticeWidth; li++) {
+                c[li] = interpolateColumn(li, j, k);
+            }
+            int index = this.width * j;
+            for (int i = 0; i < this.width; i++) {
+                int li = i / this.step;
+                float fi = (i - (li * this.step)) / (float) this.step;
+                if (fi == 0f) {
+                    out[index + i] = c[li];
+                } else {
+                    out[index + i] = lerp(c[li], c[li + 1], fi);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills out[i + w * (j + h * k)] with the interpolated values of the last update.
+     */
+    public void fill(float[] out) {
+        float[] slice = new float[this.width * this.height];
+        for (int k = 0; k < this.depth; k++) {
+            fill(k, slice);
+            System.arraycopy(slice, 0, out, this.width * this.height * k, slice.length);
+        }
+    }
+
+}
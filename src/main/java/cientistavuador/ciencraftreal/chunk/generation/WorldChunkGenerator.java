@@ -30,7 +30,11 @@ import cientistavuador.ciencraftreal.block.Block;
 import cientistavuador.ciencraftreal.block.BlockRegister;
 import cientistavuador.ciencraftreal.block.Blocks;
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.noise.NoiseBackend;
+import cientistavuador.ciencraftreal.noise.NoiseBackends;
 import cientistavuador.ciencraftreal.noise.OpenSimplex2;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -47,15 +51,43 @@ public class WorldChunkGenerator implements ChunkGenerator {
     public static final int ORE_TYPE_AREA = 500;
     public static final int ORE_SIZE = 400;
     public static final float ORE_CHANCE = 0.1f;
+    public static final int ORE_MIN_HEIGHT = 10;
+    public static final int ORE_MAX_HEIGHT = 50;
+    public static final int ORE_HEIGHT = (ORE_MAX_HEIGHT - ORE_MIN_HEIGHT) + 1;
+    public static final double ORE_MAX_ERROR = 0.01;
 
     public static final int BIOME_SIZE = 2000;
     public static final int TREE_AREA_SIZE = 250;
 
+    private static final int TREE = 0;
+    private static final int ASPEN_TREE = 1;
+    private static final int DEAD_TREE = 2;
+
+    //a tree planned during terrain generation, in the local coordinates of its origin chunk
+    private static class Tree {
+
+        private final int type;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int height;
+
+        public Tree(int type, int x, int y, int z, int height) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.height = height;
+        }
+    }
+
     private final Chunk chunk;
-    private final int[] surfaceMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
-    private final int[] oreMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
-    private final int[] oreClueMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
-    private final int[] biomeMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private int[] surfaceMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private int[] oreMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private int[] oreClueMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private int[] biomeMap = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private float[] noiseMap = new float[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+    private float[] oreNoiseMap = new float[Chunk.CHUNK_SIZE * ORE_HEIGHT];
     private final long bedrockSeed;
     private final long oreSeed;
     private final long biomeSeed;
@@ -63,8 +95,24 @@ public class WorldChunkGenerator implements ChunkGenerator {
     private final long negativeSeed;
     private final Random treeRandom;
     private final Random oreClueRandom;
+    private InterpolatedNoise3 oreNoise;
+    private final BiomeCache biomeCache;
+    private final NoiseBackend noise = NoiseBackends.get();
+    private final List<Tree> trees = new ArrayList<>();
+
+    //the seeds are drawn in the same order by the constructor
+    public static long biomeSeed(long worldSeed) {
+        Random seedGenerator = new Random(worldSeed);
+        seedGenerator.nextLong();
+        seedGenerator.nextLong();
+        return seedGenerator.nextLong();
+    }
 
-    public WorldChunkGenerator(Chunk chunk) {
+    public static BiomeCache createBiomeCache(long worldSeed) {
+        return new BiomeCache(biomeSeed(worldSeed), BIOME_SIZE);
+    }
+
+    public WorldChunkGenerator(Chunk chunk, BiomeCache biomeCache) {
         this.chunk = chunk;
 
         Random seedGenerator = new Random(chunk.getWorld().getSeed());
@@ -74,45 +122,129 @@ public class WorldChunkGenerator implements ChunkGenerator {
         this.treeSeed = seedGenerator.nextLong();
         this.negativeSeed = seedGenerator.nextLong();
 
+        if (biomeCache.getSeed() != this.biomeSeed || biomeCache.getPeriod() != BIOME_SIZE) {
+            throw new IllegalArgumentException("Biome cache is from another world.");
+        }
+        this.biomeCache = biomeCache;
+
         long chunkSeed = (((long) this.chunk.getChunkX()) << 32) + this.chunk.getChunkZ();
         seedGenerator.setSeed(chunk.getWorld().getSeed() ^ chunkSeed);
         this.treeRandom = new Random(seedGenerator.nextLong());
         this.oreClueRandom = new Random(seedGenerator.nextLong());
+
+        this.oreNoise = new InterpolatedNoise3(
+                (x0, y0, z0, dx, dy, dz, w, h, d, out) -> {
+                    this.noise.noise3Grid_ImproveXZ(this.oreSeed, x0, y0, z0, dx, dy, dz, ORE_SIZE, w, h, d, out);
+                },
+                InterpolatedNoise3.OPENSIMPLEX2_CURVATURE, InterpolatedNoise3.OPENSIMPLEX2_DISCONTINUITY,
+                ORE_SIZE, ORE_MAX_ERROR
+        );
     }
 
+    @Override
     public Chunk getChunk() {
         return chunk;
     }
 
+    //the stages are split in package private passes so they can be benchmarked in isolation
     @Override
-    public void generate() {
+    public void generateTerrain() {
         generateBiomeMap();
         generateOreMap();
         generateSurface();
 
-        for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-            for (int y = 0; y < Chunk.CHUNK_HEIGHT; y++) {
-                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
-                    generateStone(x, y, -z);
-                    generateSoil(x, y, -z);
-                    generateBedrock(x, y, -z);
-                    generateOres(x, y, -z);
+        generateOreNoise();
+        generateColumns();
+        generateNegativeTerrain();
+        generateOreClues();
+        planTrees();
+
+        //generators are kept until their neighbors are decorated, which only needs the planned trees
+        this.surfaceMap = null;
+        this.oreMap = null;
+        this.oreClueMap = null;
+        this.biomeMap = null;
+        this.noiseMap = null;
+        this.oreNoiseMap = null;
+        this.oreNoise = null;
+    }
+
+    @Override
+    public void decorate(ChunkGenerator[] neighborhood) {
+        for (int offsetZ = -1; offsetZ <= 1; offsetZ++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                ChunkGenerator generator = neighborhood[(offsetX + 1) + ((offsetZ + 1) * 3)];
+                if (generator instanceof WorldChunkGenerator origin) {
+                    for (Tree tree : origin.trees) {
+                        placeTree(tree, offsetX * Chunk.CHUNK_SIZE, offsetZ * Chunk.CHUNK_SIZE);
+                    }
                 }
             }
         }
+    }
+
+    @Override
+    public void finish() {
+        this.chunk.finishGeneration();
+    }
+
+    void generateColumns() {
+        for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+            this.oreNoise.fill(z, this.oreNoiseMap);
+            for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                generateColumn(x, -z);
+            }
+        }
+    }
 
-        generateNegativeTerrain();
-        generateOreClues();
-        generateTrees();
+    private void generateColumn(int x, int z) {
+        int surface = this.surfaceMap[x + (-z * Chunk.CHUNK_SIZE)];
+
+        generateStone(x, z, surface);
+        for (int y = Math.max(surface - 3, 0); y <= surface; y++) {
+            generateSoil(x, y, z);
+        }
+        for (int y = 0; y <= 3; y++) {
+            generateBedrock(x, y, z);
+        }
+        for (int y = ORE_MIN_HEIGHT; y <= ORE_MAX_HEIGHT; y++) {
+            generateOres(x, y, z);
+        }
+    }
+
+    private float[] generateNoiseMap(long seed, double size) {
+        this.noise.noise2Grid(seed,
+                0.5 + this.chunk.getChunkX() * Chunk.CHUNK_SIZE,
+                -0.5 + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE,
+                1.0, -1.0, size,
+                Chunk.CHUNK_SIZE, Chunk.CHUNK_SIZE,
+                this.noiseMap
+        );
+        return this.noiseMap;
     }
 
-    private void generateBiomeMap() {
+    void generateOreNoise() {
+        this.oreNoise.update(
+                0.5 + this.chunk.getChunkX() * Chunk.CHUNK_SIZE,
+                ORE_MIN_HEIGHT + 0.5,
+                -0.5 + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE,
+                1.0, 1.0, -1.0,
+                Chunk.CHUNK_SIZE, ORE_HEIGHT, Chunk.CHUNK_SIZE
+        );
+    }
+
+    void generateBiomeMap() {
+        //the cache goes in increasing world z, the maps in decreasing
+        float[] noise = this.noiseMap;
+        this.biomeCache.fill(
+                this.chunk.getChunkX() * Chunk.CHUNK_SIZE,
+                (this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) - (Chunk.CHUNK_SIZE - 1),
+                Chunk.CHUNK_SIZE, Chunk.CHUNK_SIZE,
+                noise
+        );
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                float value = OpenSimplex2.noise2(this.biomeSeed,
-                        ((x + 0.5) + this.chunk.getChunkX() * Chunk.CHUNK_SIZE) / BIOME_SIZE,
-                        ((-z - 0.5) + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) / BIOME_SIZE
-                );
+                float value = noise[x + ((Chunk.CHUNK_SIZE - 1 - z) * Chunk.CHUNK_SIZE)];
                 value = (value + 1f) * 0.5f;
 
                 this.biomeMap[x + (z * Chunk.CHUNK_SIZE)] = (int) Math.floor(value * 3);
@@ -121,42 +253,31 @@ public class WorldChunkGenerator implements ChunkGenerator {
 
     }
 
-    private void generateOreMap() {
+    void generateOreMap() {
+        float[] noise = generateNoiseMap(this.oreSeed, ORE_TYPE_AREA);
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                float value = OpenSimplex2.noise2(this.oreSeed,
-                        ((x + 0.5) + this.chunk.getChunkX() * Chunk.CHUNK_SIZE) / ORE_TYPE_AREA,
-                        ((-z - 0.5) + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) / ORE_TYPE_AREA
-                );
+                float value = noise[x + (z * Chunk.CHUNK_SIZE)];
                 value = (value + 1f) * 0.5f;
                 this.oreMap[x + (z * Chunk.CHUNK_SIZE)] = (int) Math.floor(value * Blocks.ORES.length);
             }
         }
     }
 
-    private void generateSurface() {
-        long seed = this.chunk.getWorld().getSeed();
+    void generateSurface() {
+        float[] noise = generateNoiseMap(this.chunk.getWorld().getSeed(), SMOOTHNESS);
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                float value = OpenSimplex2.noise2(
-                        seed,
-                        ((x + 0.5) + this.chunk.getChunkX() * Chunk.CHUNK_SIZE) / SMOOTHNESS,
-                        ((-z - 0.5) + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) / SMOOTHNESS
-                );
+                float value = noise[x + (z * Chunk.CHUNK_SIZE)];
                 value = (value + 1f) * 0.5f;
                 this.surfaceMap[x + (z * Chunk.CHUNK_SIZE)] = (int) (value * (MAX_HEIGHT - MIN_HEIGHT) + MIN_HEIGHT);
             }
         }
     }
 
-    private void generateStone(int x, int y, int z) {
-        int surface = this.surfaceMap[x + (-z * Chunk.CHUNK_SIZE)];
-
-        if (y > surface) {
-            return;
-        }
-
-        this.chunk.setBlock(x, y, z, Blocks.STONE);
+    private void generateStone(int x, int z, int surface) {
+        //the top 4 blocks are soil
+        this.chunk.fillGeneratedColumn(x, z, 0, surface - 4, Blocks.STONE);
     }
 
     private void generateSoil(int x, int y, int z) {
@@ -194,9 +315,9 @@ public class WorldChunkGenerator implements ChunkGenerator {
 
             switch (distance) {
                 case 0 ->
-                    this.chunk.setBlock(x, y, z, top);
+                    this.chunk.setGeneratedBlock(x, y, z, top);
                 case 1, 2, 3 ->
-                    this.chunk.setBlock(x, y, z, under);
+                    this.chunk.setGeneratedBlock(x, y, z, under);
             }
         }
     }
@@ -211,51 +332,45 @@ public class WorldChunkGenerator implements ChunkGenerator {
 
         switch (y) {
             case 0 -> {
-                this.chunk.setBlock(x, y, z, Blocks.BEDROCK);
+                this.chunk.setGeneratedBlock(x, y, z, Blocks.BEDROCK);
             }
             case 1 -> {
                 if (OpenSimplex2.noise2(this.bedrockSeed, worldX, worldZ) > -0.5) {
-                    this.chunk.setBlock(x, y, z, Blocks.BEDROCK);
+                    this.chunk.setGeneratedBlock(x, y, z, Blocks.BEDROCK);
                 }
             }
             case 2 -> {
                 if (OpenSimplex2.noise2(this.bedrockSeed, worldX + 1f, worldZ - 1f) > 0) {
-                    this.chunk.setBlock(x, y, z, Blocks.BEDROCK);
+                    this.chunk.setGeneratedBlock(x, y, z, Blocks.BEDROCK);
                 }
             }
             case 3 -> {
                 if (OpenSimplex2.noise2(this.bedrockSeed, worldX + 2f, worldZ - 2f) > 0.5) {
-                    this.chunk.setBlock(x, y, z, Blocks.BEDROCK);
+                    this.chunk.setGeneratedBlock(x, y, z, Blocks.BEDROCK);
                 }
             }
         }
     }
 
     private void generateOres(int x, int y, int z) {
-        if (y >= 10 && y <= 50) {
+        if (y >= ORE_MIN_HEIGHT && y <= ORE_MAX_HEIGHT) {
             Block oreType = Blocks.ORES[this.oreMap[x + (-z * Chunk.CHUNK_SIZE)]];
 
-            float value = OpenSimplex2.noise3_ImproveXZ(this.oreSeed,
-                    ((x + 0.5) + this.chunk.getChunkX() * Chunk.CHUNK_SIZE) / ORE_SIZE,
-                    (y + 0.5) / ORE_SIZE,
-                    ((z - 0.5) + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) / ORE_SIZE
-            );
+            float value = this.oreNoiseMap[x + ((y - ORE_MIN_HEIGHT) * Chunk.CHUNK_SIZE)];
             value = (value + 1f) * 0.5f;
 
             if (value > (1f - ORE_CHANCE)) {
-                this.chunk.setBlock(x, y, z, oreType);
+                this.chunk.setGeneratedBlock(x, y, z, oreType);
                 this.oreClueMap[x + (-z * Chunk.CHUNK_SIZE)] = oreType.getId();
             }
         }
     }
 
-    private void generateNegativeTerrain() {
+    void generateNegativeTerrain() {
+        float[] noise = generateNoiseMap(this.negativeSeed, SMOOTHNESS * 2);
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                float value = OpenSimplex2.noise2(this.negativeSeed,
-                        ((x + 0.5) + this.chunk.getChunkX() * Chunk.CHUNK_SIZE) / (SMOOTHNESS * 2),
-                        ((-z - 0.5) + this.chunk.getChunkZ() * Chunk.CHUNK_SIZE) / (SMOOTHNESS * 2)
-                );
+                float value = noise[x + (z * Chunk.CHUNK_SIZE)];
                 value = (value + 1f) * 0.5f;
                 value = value * value * value;
 
@@ -267,9 +382,7 @@ public class WorldChunkGenerator implements ChunkGenerator {
                     continue;
                 }
 
-                for (int y = MAX_HEIGHT; y > negativeSurface; y--) {
-                    this.chunk.setBlock(x, y, -z, Blocks.AIR);
-                }
+                this.chunk.fillGeneratedColumn(x, -z, negativeSurface + 1, MAX_HEIGHT, Blocks.AIR);
                 this.surfaceMap[x + (z * Chunk.CHUNK_SIZE)] = negativeSurface;
 
                 genSoil:
@@ -282,14 +395,12 @@ public class WorldChunkGenerator implements ChunkGenerator {
                     }
                     if (negativeSurface >= MIN_HEIGHT) {
                         for (int i = 0; i < 2; i++) {
-                            this.chunk.setBlock(x, negativeSurface - i, -z, Blocks.SAND);
+                            this.chunk.setGeneratedBlock(x, negativeSurface - i, -z, Blocks.SAND);
                         }
                         break genSoil;
                     }
                     if (negativeSurface < MIN_HEIGHT) {
-                        for (int y = MIN_HEIGHT; y > negativeSurface; y--) {
-                            this.chunk.setBlock(x, y, -z, Blocks.WATER);
-                        }
+                        this.chunk.fillGeneratedColumn(x, -z, negativeSurface + 1, MIN_HEIGHT, Blocks.WATER);
                         break genSoil;
                     }
                 }
@@ -297,7 +408,7 @@ public class WorldChunkGenerator implements ChunkGenerator {
         }
     }
 
-    private void generateOreClues() {
+    void generateOreClues() {
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
                 int ore = this.oreClueMap[x + (z * Chunk.CHUNK_SIZE)];
@@ -305,13 +416,16 @@ public class WorldChunkGenerator implements ChunkGenerator {
                 if (ore != 0 && this.oreClueRandom.nextInt(200) == 0) {
                     int surface = this.surfaceMap[x + (z * Chunk.CHUNK_SIZE)];
 
-                    this.chunk.setBlock(x, surface, -z, BlockRegister.getBlock(ore));
+                    this.chunk.setGeneratedBlock(x, surface, -z, BlockRegister.getBlock(ore));
                 }
             }
         }
     }
 
-    private void generateTrees() {
+    void planTrees() {
+        //columns covered by a planned tree, they no longer have a grass, sand or mycelium surface
+        boolean[] covered = new boolean[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
                 int biomeType = this.biomeMap[x + (z * Chunk.CHUNK_SIZE)];
@@ -327,6 +441,10 @@ public class WorldChunkGenerator implements ChunkGenerator {
                 }
 
                 if (this.treeRandom.nextInt(chance) == 0) {
+                    if (covered[x + (z * Chunk.CHUNK_SIZE)]) {
+                        continue;
+                    }
+
                     int surface = this.surfaceMap[x + (z * Chunk.CHUNK_SIZE)];
                     Block surfaceBlock = this.chunk.getBlock(x, surface, -z);
 
@@ -337,60 +455,89 @@ public class WorldChunkGenerator implements ChunkGenerator {
                     value = (value + 1f) * 0.5f;
 
                     if (biomeType == 0 && surfaceBlock == Blocks.GRASS && value > 0.5f) {
-                        placeTree(x, surface + 1, -z, false);
+                        planTree(TREE, x, surface + 1, -z, covered);
                     }
                     if (biomeType == 2 && surfaceBlock == Blocks.SAND && value > 0.90f) {
-                        placeDeadTree(x, surface + 1, -z);
+                        planTree(DEAD_TREE, x, surface + 1, -z, covered);
                     }
                     if (biomeType == 1 && surfaceBlock == Blocks.MYCELIUM && value > 0.70f) {
-                        placeTree(x, surface + 1, -z, true);
+                        planTree(ASPEN_TREE, x, surface + 1, -z, covered);
                     }
                 }
             }
         }
     }
 
-    private void placeTree(int x, int y, int z, boolean aspenType) {
-        if (
-                ((x-2) < 0 || (x+2) >= Chunk.CHUNK_SIZE) ||
-                ((z-2) <= -Chunk.CHUNK_SIZE || (z+2) > 0)
-                ) {
+    private void planTree(int type, int x, int y, int z, boolean[] covered) {
+        int height;
+        switch (type) {
+            case ASPEN_TREE ->
+                height = this.treeRandom.nextInt(6) + 4;
+            case DEAD_TREE ->
+                height = this.treeRandom.nextInt(4) + 1;
+            default ->
+                height = this.treeRandom.nextInt(4) + 4;
+        }
+        this.trees.add(new Tree(type, x, y, z, height));
+
+        if (type == DEAD_TREE) {
             return;
         }
-        int treeHeight = 4;
-        if (aspenType) {
-            treeHeight = 6;
+        for (int localZ = -2; localZ <= 2; localZ++) {
+            for (int localX = -2; localX <= 2; localX++) {
+                int finalX = localX + x;
+                int finalZ = localZ + z;
+                if (finalX >= 0 && finalX < Chunk.CHUNK_SIZE && finalZ <= 0 && finalZ > -Chunk.CHUNK_SIZE) {
+                    covered[finalX + (-finalZ * Chunk.CHUNK_SIZE)] = true;
+                }
+            }
         }
+    }
+
+    //writes the part of a tree that falls inside this chunk, offset is the origin chunk position relative to this chunk in blocks
+    private void setTreeBlock(int offsetX, int offsetZ, int x, int y, int z, Block block) {
+        x += offsetX;
+        z += offsetZ;
+        if (x < 0 || x >= Chunk.CHUNK_SIZE || z > 0 || z <= -Chunk.CHUNK_SIZE || y < 0 || y >= Chunk.CHUNK_HEIGHT) {
+            return;
+        }
+        this.chunk.setGeneratedBlock(x, y, z, block);
+    }
+
+    private void placeTree(Tree tree, int offsetX, int offsetZ) {
+        int x = tree.x;
+        int y = tree.y;
+        int z = tree.z;
+        int height = tree.height;
+
+        if (tree.type == DEAD_TREE) {
+            for (int i = 0; i < height; i++) {
+                setTreeBlock(offsetX, offsetZ, x, y + i, z, Blocks.DEAD_WOOD);
+            }
+            return;
+        }
+
+        boolean aspenType = (tree.type == ASPEN_TREE);
         Block leaves = Blocks.LEAVES;
         if (aspenType) {
             leaves = Blocks.ASPEN_LEAVES;
         }
-        int height = this.treeRandom.nextInt(treeHeight) + 4;
         for (int localZ = -2; localZ <= 2; localZ++) {
             for (int localX = -2; localX <= 2; localX++) {
                 int finalX = localX + x;
                 int finalZ = localZ + z;
-                this.chunk.setBlock(finalX, (y + height) - 1, finalZ, leaves);
-                this.chunk.setBlock(finalX, (y + height) - 2, finalZ, leaves);
-                this.chunk.setBlock(finalX, (y + height) - 3, finalZ, leaves);
-                this.surfaceMap[finalX + (-finalZ * Chunk.CHUNK_SIZE)] = (y + height) - 1;
+                setTreeBlock(offsetX, offsetZ, finalX, (y + height) - 1, finalZ, leaves);
+                setTreeBlock(offsetX, offsetZ, finalX, (y + height) - 2, finalZ, leaves);
+                setTreeBlock(offsetX, offsetZ, finalX, (y + height) - 3, finalZ, leaves);
             }
         }
         for (int i = 0; i < height; i++) {
-            this.chunk.setBlock(x, y + i, z, (aspenType ? Blocks.ASPEN_WOOD : Blocks.WOOD));
+            setTreeBlock(offsetX, offsetZ, x, y + i, z, (aspenType ? Blocks.ASPEN_WOOD : Blocks.WOOD));
         }
         for (int i = 0; i < 2; i++) {
-            this.chunk.setBlock(x, y + i + height, z, leaves);
-        }
-        this.chunk.setBlock(x, y - 1, z, Blocks.DIRT);
-        this.surfaceMap[x + (-z * Chunk.CHUNK_SIZE)] = (y+1) + height;
-    }
-
-    private void placeDeadTree(int x, int y, int z) {
-        int size = this.treeRandom.nextInt(4) + 1;
-        for (int i = 0; i < size; i++) {
-            this.chunk.setBlock(x, y + i, z, Blocks.DEAD_WOOD);
+            setTreeBlock(offsetX, offsetZ, x, y + i + height, z, leaves);
         }
+        setTreeBlock(offsetX, offsetZ, x, y - 1, z, Blocks.DIRT);
     }
 
 }
@@ -34,13 +34,29 @@ import cientistavuador.ciencraftreal.chunk.Chunk;
  */
 public class WorldChunkGeneratorFactory implements ChunkGeneratorFactory {
 
+    private BiomeCache biomeCache = null;
+    private long biomeCacheSeed = 0;
+
     public WorldChunkGeneratorFactory() {
         
     }
+
+    //created with the first chunk, a factory is normally used by a single world
+    public synchronized BiomeCache getBiomeCache() {
+        return biomeCache;
+    }
+
+    private synchronized BiomeCache biomeCache(long worldSeed) {
+        if (this.biomeCache == null || this.biomeCacheSeed != worldSeed) {
+            this.biomeCache = WorldChunkGenerator.createBiomeCache(worldSeed);
+            this.biomeCacheSeed = worldSeed;
+        }
+        return this.biomeCache;
+    }
     
     @Override
     public ChunkGenerator create(Chunk chunk) {
-        return new WorldChunkGenerator(chunk);
+        return new WorldChunkGenerator(chunk, biomeCache(chunk.getWorld().getSeed()));
     }
     
 }
@@ -29,8 +29,13 @@ package cientistavuador.ciencraftreal.chunk.render.layer;
 import cientistavuador.ciencraftreal.Main;
 import cientistavuador.ciencraftreal.camera.Camera;
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSection;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.LayerStreams;
 import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesCreator;
 import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesStream;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import cientistavuador.ciencraftreal.world.WorldStatistics;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -46,26 +51,31 @@ public class ChunkLayer {
 
     //pos, normal, tex coords, tex id, ao
     public static final int VERTEX_SIZE_ELEMENTS = 3 + 2 + 1 + 1 + 1 + 1;
-    public static final int TEX_COORDS_MAX = 10;
+    //greedy meshed faces repeat the texture up to the size of a layer
+    public static final int TEX_COORDS_MAX = Math.max(Chunk.CHUNK_SIZE, ChunkSection.HEIGHT);
 
-    public static final int HEIGHT = 32;
+    public static final int HEIGHT = ChunkSection.HEIGHT;
+    public static final int VERTICAL_STREAMING_DISTANCE = 64;
 
     private final Chunk chunk;
     private final int y;
     private final Vector3d center;
 
-    private boolean useCachedElimination = false;
-    private boolean empty = false;
     private boolean deleted = true;
+    
+    private int version = 0;
+    private int futureVersion = 0;
+    private boolean rerunQueued = false;
+
+    //one pass meshes both the opaque and the translucent (alpha) vertices
+    private Future<LayerStreams> futureStreams = null;
 
-    private Future<VerticesStream> futureVertices = null;
     private short[] vertices = null;
     private int[] indices = null;
     private int vao = 0;
     private int vbo = 0;
     private int ebo = 0;
 
-    private Future<VerticesStream> futureVerticesAlpha = null;
     private short[] verticesAlpha = null;
     private int[] indicesAlpha = null;
     private int vaoAlpha = 0;
@@ -105,9 +115,20 @@ public class ChunkLayer {
     public boolean isDeleted() {
         return deleted;
     }
+
+    public int getVersion() {
+        return version;
+    }
     
     public boolean testEmpty() {
-        return doPreElimination();
+        return this.chunk.isSectionEmpty(this.y / ChunkSection.HEIGHT);
+    }
+
+    public boolean testStreamed(Camera camera) {
+        if ((this.y + HEIGHT) >= this.chunk.getLowestSurfaceHeight()) {
+            return true;
+        }
+        return Math.abs(this.center.y() - camera.getPosition().y()) <= (VERTICAL_STREAMING_DISTANCE + (HEIGHT / 2.0));
     }
 
     public boolean testAab(Camera camera) {
@@ -120,12 +141,35 @@ public class ChunkLayer {
         );
     }
 
+    private WorldStatistics getStatistics() {
+        WorldCamera world = this.chunk.getWorld();
+        if (world == null) {
+            return null;
+        }
+        return world.getStatistics();
+    }
+
+    private void submit() {
+        this.futureVersion = this.version;
+        this.rerunQueued = false;
+        ChunkSnapshot snapshot = ChunkSnapshot.of(this.chunk, this.y / HEIGHT);
+        this.futureStreams = CompletableFuture.supplyAsync(() -> VerticesCreator.generateStreams(snapshot));
+        
+        WorldStatistics statistics = getStatistics();
+        if (statistics != null) {
+            statistics.meshJobSubmitted();
+        }
+    }
+
     public void update(long nanoTime) {
         this.deleted = false;
         
-        if (this.vertices == null && this.futureVertices == null) {
-            this.futureVertices = CompletableFuture.supplyAsync(() -> VerticesCreator.generateStream(this, false));
-            this.futureVerticesAlpha = CompletableFuture.supplyAsync(() -> VerticesCreator.generateStream(this, true));
+        if (this.vertices == null && this.futureStreams == null) {
+            WorldCamera world = this.chunk.getWorld();
+            if (world != null && !world.isNeighborhoodComplete(this.chunk)) {
+                return;
+            }
+            submit();
             return;
         }
 
@@ -133,7 +177,16 @@ public class ChunkLayer {
             return;
         }
 
-        if (this.futureVertices != null && (this.futureVertices.isDone() && this.futureVerticesAlpha.isDone())) {
+        if (this.futureStreams != null && this.futureStreams.isDone()) {
+            if (this.futureVersion != this.version) {
+                WorldStatistics statistics = getStatistics();
+                if (statistics != null) {
+                    statistics.staleMeshDiscarded();
+                }
+                submit();
+                return;
+            }
+            
             glDeleteVertexArrays(this.vao);
             glDeleteBuffers(this.vbo);
             glDeleteBuffers(this.ebo);
@@ -147,11 +200,27 @@ public class ChunkLayer {
             this.vboAlpha = 0;
             this.eboAlpha = 0;
 
-            prepareVaoVbo();
-            prepareVaoVboAlpha();
+            LayerStreams streams;
+            try {
+                streams = this.futureStreams.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
 
-            this.futureVertices = null;
-            this.futureVerticesAlpha = null;
+            prepareVaoVbo(streams.getOpaque());
+            prepareVaoVboAlpha(streams.getTranslucent());
+
+            this.futureStreams = null;
+            
+            //the first layer with faces uploaded makes the chunk visible
+            long submitTime = this.chunk.getSubmitTime();
+            if (submitTime != 0 && (readyForRendering(false) || readyForRendering(true))) {
+                this.chunk.setSubmitTime(0);
+                WorldStatistics statistics = getStatistics();
+                if (statistics != null) {
+                    statistics.chunkVisible(System.nanoTime() - submitTime);
+                }
+            }
             return;
         }
     }
@@ -181,22 +250,39 @@ public class ChunkLayer {
     }
 
     public void delete(boolean lazy) {
-        if (this.deleted) {
-            return;
-        }
-        
-        this.useCachedElimination = false;
-        this.deleted = true;
-
         if (lazy) {
-            this.futureVertices = CompletableFuture.supplyAsync(() -> VerticesCreator.generateStream(this, false));
-            this.futureVerticesAlpha = CompletableFuture.supplyAsync(() -> VerticesCreator.generateStream(this, true));
+            if (this.vertices == null && this.futureStreams == null) {
+                return;
+            }
+            
+            this.version++;
+            
+            if (this.futureStreams == null) {
+                submit();
+                return;
+            }
+            
+            if (this.rerunQueued) {
+                WorldStatistics statistics = getStatistics();
+                if (statistics != null) {
+                    statistics.meshJobAvoided();
+                }
+            }
+            this.rerunQueued = true;
         } else {
+            if (this.deleted) {
+                return;
+            }
+            
+            this.deleted = true;
+            this.version++;
+            this.rerunQueued = false;
+            
             glDeleteVertexArrays(this.vao);
             glDeleteBuffers(this.vbo);
             glDeleteBuffers(this.ebo);
 
-            this.futureVertices = null;
+            this.futureStreams = null;
             this.vertices = null;
             this.indices = null;
             this.vao = 0;
@@ -207,7 +293,6 @@ public class ChunkLayer {
             glDeleteBuffers(this.vboAlpha);
             glDeleteBuffers(this.eboAlpha);
 
-            this.futureVerticesAlpha = null;
             this.verticesAlpha = null;
             this.indicesAlpha = null;
             this.vaoAlpha = 0;
@@ -216,26 +301,6 @@ public class ChunkLayer {
         }
     }
 
-    private boolean doPreElimination() {
-        if (this.useCachedElimination) {
-            return this.empty;
-        }
-        this.useCachedElimination = true;
-        
-        if (this.chunk.getHighestY() < this.y) {
-            this.empty = true;
-            return this.empty;
-        }
-        for (int blockY = 0; blockY < ChunkLayer.HEIGHT; blockY++) {
-            if (this.chunk.getAmountOfBlocksInY(blockY + this.y) != 0) {
-                this.empty = false;
-                return this.empty;
-            }
-        }
-        this.empty = true;
-        return this.empty;
-    }
-
     private void setupVao() {
         //position, 3 of unsigned short (normalized)
         glEnableVertexAttribArray(0);
@@ -258,14 +323,7 @@ public class ChunkLayer {
         glVertexAttribPointer(4, 1, GL_UNSIGNED_SHORT, true, VERTEX_SIZE_ELEMENTS * Short.BYTES, (3 + 2 + 2 + 1) * Short.BYTES);
     }
 
-    private void prepareVaoVbo() {
-        VerticesStream result;
-        try {
-            result = this.futureVertices.get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new RuntimeException(ex);
-        }
-
+    private void prepareVaoVbo(VerticesStream result) {
         this.vertices = result.vertices();
         this.indices = result.indices();
 
@@ -290,12 +348,12 @@ public class ChunkLayer {
         glBindBuffer(GL_ARRAY_BUFFER, 0);
     }
 
-    private void prepareVaoVboAlpha() {
-        VerticesStream result;
-        try {
-            result = this.futureVerticesAlpha.get();
-        } catch (InterruptedException | ExecutionException ex) {
-            throw new RuntimeException(ex);
+    //result is null for layers without translucent faces
+    private void prepareVaoVboAlpha(VerticesStream result) {
+        if (result == null) {
+            this.verticesAlpha = null;
+            this.indicesAlpha = null;
+            return;
         }
 
         this.verticesAlpha = result.vertices();
@@ -79,11 +79,12 @@ public class ChunkLayersPipeline {
         if (chunks.length == 0) {
             return;
         }
-        WorldSky sky = chunks[0].getChunk().getWorld().getSky();
+        WorldCamera world = chunks[0].getChunk().getWorld();
+        WorldSky sky = world.getSky();
 
         List<DistancedChunkLayer> layerList = new ArrayList<>(chunks.length * (Chunk.CHUNK_HEIGHT / ChunkLayer.HEIGHT));
 
-        final double maxDistance = (WorldCamera.VIEW_DISTANCE + 0.5) * Chunk.CHUNK_SIZE;
+        final double maxDistance = (world.getViewDistance() + 0.5) * Chunk.CHUNK_SIZE;
         for (int i = 0; i < chunks.length; i++) {
             ChunkLayers layers = chunks[i];
 
@@ -97,7 +98,7 @@ public class ChunkLayersPipeline {
             }
             for (int j = 0; j < layers.length(); j++) {
                 ChunkLayer layer = layers.layerAt(j);
-                if (!layer.testEmpty() && layer.testAab(camera)) {
+                if (!layer.testEmpty() && layer.testStreamed(camera) && layer.testAab(camera)) {
                     layerList.add(new DistancedChunkLayer(layer, camera));
                 }
             }
@@ -47,6 +47,7 @@ import static org.lwjgl.opengl.GL33C.*;
  */
 public class ChunkLayersShadowPipeline {
 
+    public static final float SHADOW_CAMERA_DISTANCE = 128f;
     public static final OrthoCamera DRAW_SHADOW_CAMERA;
     public static final OrthoCamera READ_SHADOW_CAMERA;
 
@@ -111,9 +112,9 @@ public class ChunkLayersShadowPipeline {
 
         DRAW_SHADOW_CAMERA.setFront(sky.getDirectionalDirection());
         DRAW_SHADOW_CAMERA.setPosition(
-                camera.getPosition().x() + (-DRAW_SHADOW_CAMERA.getFront().x() * Chunk.CHUNK_HEIGHT),
-                camera.getPosition().y() + (-DRAW_SHADOW_CAMERA.getFront().y() * Chunk.CHUNK_HEIGHT),
-                camera.getPosition().z() + (-DRAW_SHADOW_CAMERA.getFront().z() * Chunk.CHUNK_HEIGHT)
+                camera.getPosition().x() + (-DRAW_SHADOW_CAMERA.getFront().x() * SHADOW_CAMERA_DISTANCE),
+                camera.getPosition().y() + (-DRAW_SHADOW_CAMERA.getFront().y() * SHADOW_CAMERA_DISTANCE),
+                camera.getPosition().z() + (-DRAW_SHADOW_CAMERA.getFront().z() * SHADOW_CAMERA_DISTANCE)
         );
 
         List<DistancedChunkLayer> layerList = new ArrayList<>(chunks.length * (Chunk.CHUNK_HEIGHT / ChunkLayer.HEIGHT));
@@ -0,0 +1,252 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
+
+import cientistavuador.ciencraftreal.block.AmbientOcclusion;
+import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.block.BlockFacesVertices;
+import cientistavuador.ciencraftreal.block.BlockSide;
+import cientistavuador.ciencraftreal.block.SimpleBlock;
+import cientistavuador.ciencraftreal.block.SolidBlockCheck;
+import static cientistavuador.ciencraftreal.chunk.Chunk.CHUNK_SIZE;
+import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayer;
+import java.util.Arrays;
+
+/**
+ * Greedy mesher for the faces of opaque simple blocks.
+ * <p>
+ * The visible faces of the blocks added while a layer is traversed are
+ * collected into one mask per side, keyed by texture and ambient occlusion,
+ * then equal neighbor faces of each slice are merged into rectangles, grown
+ * along u first and then along v. A merged face repeats the block texture, so
+ * it looks like the faces it replaces.
+ * <p>
+ * Only faces with the same ao on their four vertices are merged, a face with
+ * an occlusion gradient is generated as it is.
+ *
+ * @author Cien
+ */
+public class GreedyMesher {
+
+    public static boolean isMerged(Block block) {
+        return block instanceof SimpleBlock simple && simple.canMergeFaces();
+    }
+
+    //u runs along x (along -z for east and west), v along -z for top and bottom and along y for the others
+    private static final int SLICE_SIZE = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int SIDE_SIZE = SLICE_SIZE * ChunkLayer.HEIGHT;
+    private static final int SIDE_SLICES = Math.max(CHUNK_SIZE, ChunkLayer.HEIGHT);
+
+    private final int[] mask = new int[SIDE_SIZE * BlockSide.NUMBER_OF_SIDES];
+    //faces waiting in each slice, empty slices are not scanned
+    private final int[] sliceFaces = new int[SIDE_SLICES * BlockSide.NUMBER_OF_SIDES];
+    private final AmbientOcclusion ao = new AmbientOcclusion();
+    private VerticesStream stream;
+    private NeighborhoodBuffer blocks;
+    private int layerY;
+
+    public GreedyMesher() {
+
+    }
+
+    public void start(VerticesStream stream, NeighborhoodBuffer blocks) {
+        if (this.stream != null) {
+            //the previous layer failed before finish, its faces are still in the mask
+            Arrays.fill(this.mask, 0);
+            Arrays.fill(this.sliceFaces, 0);
+        }
+        this.stream = stream;
+        this.blocks = blocks;
+        this.layerY = blocks.getY();
+    }
+
+    public void finish() {
+        try {
+            for (int i = 0; i < BlockSide.NUMBER_OF_SIDES; i++) {
+                BlockSide side = BlockSide.sideOf(i);
+                int slices = (isVertical(side) ? ChunkLayer.HEIGHT : CHUNK_SIZE);
+                for (int slice = 0; slice < slices; slice++) {
+                    int sliceIndex = (side.index() * SIDE_SLICES) + slice;
+                    if (this.sliceFaces[sliceIndex] == 0) {
+                        continue;
+                    }
+                    this.sliceFaces[sliceIndex] = 0;
+                    mergeMask(side, slice);
+                }
+            }
+        } finally {
+            this.stream = null;
+            this.blocks = null;
+        }
+    }
+
+    private static boolean isVertical(BlockSide side) {
+        return side == BlockSide.TOP || side == BlockSide.BOTTOM;
+    }
+
+    private static int vSize(BlockSide side) {
+        return (isVertical(side) ? CHUNK_SIZE : ChunkLayer.HEIGHT);
+    }
+
+    private static int key(int texture, float ao) {
+        return ((texture << 2) | Math.round(ao / AmbientOcclusion.AO_STEP)) + 1;
+    }
+
+    private void addFace(BlockSide side, int x, int y, int z, int key) {
+        int slice;
+        int u;
+        int v;
+        switch (side) {
+            case TOP, BOTTOM -> {
+                slice = y;
+                u = x;
+                v = z;
+            }
+            case NORTH, SOUTH -> {
+                slice = z;
+                u = x;
+                v = y;
+            }
+            default -> {
+                slice = x;
+                u = z;
+                v = y;
+            }
+        }
+        this.mask[(side.index() * SIDE_SIZE) + (slice * SLICE_SIZE) + u + (v * CHUNK_SIZE)] = key;
+        this.sliceFaces[(side.index() * SIDE_SLICES) + slice]++;
+    }
+
+    //chunk block coordinates, the block must be in the layer being meshed
+    public void addBlock(SimpleBlock block, int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        int solidSides = block.solidBlockSidesMask(this.blocks, this.blocks.index(chunkBlockX, chunkBlockY, chunkBlockZ));
+        if (solidSides == SolidBlockCheck.ALL_SIDES_SOLID) {
+            return;
+        }
+
+        boolean hasAO = block.hasAO();
+        if (hasAO) {
+            this.ao.setBlock(this.blocks, chunkBlockX, chunkBlockY, chunkBlockZ);
+        }
+
+        for (int i = 0; i < BlockSide.NUMBER_OF_SIDES; i++) {
+            if ((solidSides & (1 << i)) != 0) {
+                continue;
+            }
+
+            BlockSide side = BlockSide.sideOf(i);
+            int texture = block.getBlockSideTexture(side);
+            float faceAO = 0f;
+            if (hasAO) {
+                this.ao.generateSideAO(side);
+                if (!this.ao.isSideAOUniform()) {
+                    BlockFacesVertices.generateFaceVertices(this.stream, side, chunkBlockX + 0.5f, chunkBlockY + 0.5f, chunkBlockZ - 0.5f, texture, this.ao);
+                    continue;
+                }
+                faceAO = this.ao.getSideVertexAO(false, false, false);
+            }
+
+            addFace(side, chunkBlockX, chunkBlockY - this.layerY, -chunkBlockZ, key(texture, faceAO));
+        }
+    }
+
+    //clears every face it merges, the mask is empty again once all the slices are merged
+    private void mergeMask(BlockSide side, int slice) {
+        int uSize = CHUNK_SIZE;
+        int vSize = vSize(side);
+        int base = (side.index() * SIDE_SIZE) + (slice * SLICE_SIZE);
+
+        for (int v = 0; v < vSize; v++) {
+            for (int u = 0; u < uSize; u++) {
+                int key = this.mask[base + u + (v * uSize)];
+                if (key == 0) {
+                    continue;
+                }
+
+                int width = 1;
+                while ((u + width) < uSize && this.mask[base + (u + width) + (v * uSize)] == key) {
+                    width++;
+                }
+
+                int height = 1;
+                grow:
+                while ((v + height) < vSize) {
+                    int row = base + ((v + height) * uSize);
+                    for (int i = 0; i < width; i++) {
+                        if (this.mask[(u + i) + row] != key) {
+                            break grow;
+                        }
+                    }
+                    height++;
+                }
+
+                for (int j = 0; j < height; j++) {
+                    int row = base + ((v + j) * uSize);
+                    for (int i = 0; i < width; i++) {
+                        this.mask[(u + i) + row] = 0;
+                    }
+                }
+
+                generateMergedFace(side, slice, u, v, width, height, key);
+            }
+        }
+    }
+
+    private void generateMergedFace(BlockSide side, int slice, int u, int v, int width, int height, int key) {
+        int texture = (key - 1) >> 2;
+        float faceAO = ((key - 1) & 0b11) * AmbientOcclusion.AO_STEP;
+        this.ao.setSideAO(side, faceAO);
+
+        float centerU = u + (width * 0.5f);
+        float centerV = v + (height * 0.5f);
+
+        switch (side) {
+            case TOP, BOTTOM -> BlockFacesVertices.generateFaceVertices(
+                    this.stream, side,
+                    centerU, this.layerY + slice + 0.5f, -centerV,
+                    texture,
+                    width, 1f, height,
+                    this.ao
+            );
+            case NORTH, SOUTH -> BlockFacesVertices.generateFaceVertices(
+                    this.stream, side,
+                    centerU, this.layerY + centerV, -slice - 0.5f,
+                    texture,
+                    width, height, 1f,
+                    this.ao
+            );
+            case EAST, WEST -> BlockFacesVertices.generateFaceVertices(
+                    this.stream, side,
+                    slice + 0.5f, this.layerY + centerV, -centerU,
+                    texture,
+                    1f, height, width,
+                    this.ao
+            );
+        }
+    }
+
+}
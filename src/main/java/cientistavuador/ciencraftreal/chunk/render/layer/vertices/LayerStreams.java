@@ -0,0 +1,83 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
+
+/**
+ * The opaque and translucent streams of a layer, filled by a single pass of
+ * VerticesCreator. The translucent stream is only created once a
+ * translucent block is found, most layers have none.
+ *
+ * @author Cien
+ */
+public class LayerStreams {
+
+    private final VerticesStream opaque;
+    private VerticesStream translucent = null;
+    private boolean translucentBlocks = false;
+    private int layerY;
+
+    public LayerStreams(int layerY) {
+        this.opaque = new VerticesStream(layerY);
+        this.layerY = layerY;
+    }
+
+    public void reset(int layerY) {
+        this.layerY = layerY;
+        this.opaque.reset(layerY);
+        if (this.translucent != null) {
+            this.translucent.reset(layerY);
+        }
+        this.translucentBlocks = false;
+    }
+
+    public VerticesStream getOpaque() {
+        return opaque;
+    }
+
+    //creates the translucent stream on the first call after a reset
+    public VerticesStream translucentStream() {
+        if (this.translucent == null) {
+            this.translucent = new VerticesStream(this.layerY);
+        }
+        this.translucentBlocks = true;
+        return this.translucent;
+    }
+
+    //false if the layer has no translucent faces, nothing needs to be uploaded for it
+    public boolean hasTranslucent() {
+        return this.translucentBlocks && this.translucent.numberOfVertices() != 0;
+    }
+
+    //null if hasTranslucent is false
+    public VerticesStream getTranslucent() {
+        if (!hasTranslucent()) {
+            return null;
+        }
+        return this.translucent;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
+
+import cientistavuador.ciencraftreal.block.AmbientOcclusion;
+
+/**
+ * Objects reused by every layer meshed on a thread, so the meshing loop does
+ * not allocate anything per block.
+ *
+ * @author Cien
+ */
+public class MesherContext {
+
+    private static final ThreadLocal<MesherContext> CONTEXT = ThreadLocal.withInitial(MesherContext::new);
+
+    public static MesherContext get() {
+        return CONTEXT.get();
+    }
+
+    private final NeighborhoodBuffer neighborhoodBuffer = new NeighborhoodBuffer();
+    private final AmbientOcclusion ambientOcclusion = new AmbientOcclusion();
+    private final GreedyMesher greedyMesher = new GreedyMesher();
+
+    private MesherContext() {
+
+    }
+
+    public NeighborhoodBuffer getNeighborhoodBuffer() {
+        return neighborhoodBuffer;
+    }
+
+    public AmbientOcclusion getAmbientOcclusion() {
+        return ambientOcclusion;
+    }
+
+    public GreedyMesher getGreedyMesher() {
+        return greedyMesher;
+    }
+
+}
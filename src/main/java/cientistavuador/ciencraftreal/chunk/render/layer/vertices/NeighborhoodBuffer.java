@@ -0,0 +1,154 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
+
+import cientistavuador.ciencraftreal.chunk.ChunkSection;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import static cientistavuador.ciencraftreal.chunk.Chunk.CHUNK_SIZE;
+import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayer;
+import java.util.Arrays;
+
+/**
+ * The block ids of a layer and of the blocks around it, copied once from a
+ * snapshot into a flat array, so the face and ao tests of meshing are an
+ * index plus a constant offset instead of a section lookup.
+ * <p>
+ * Indices go along x, then along -z, then along y, starting one block before
+ * the layer on each axis. Blocks outside of the world or of the loaded
+ * chunks are air.
+ *
+ * @author Cien
+ */
+public class NeighborhoodBuffer {
+
+    public static final int SIZE_XZ = CHUNK_SIZE + 2;
+    public static final int SIZE_Y = ChunkLayer.HEIGHT + 2;
+
+    //index offsets of the neighbor one block away on each axis
+    public static final int STEP_X = 1;
+    public static final int STEP_Z = -SIZE_XZ;
+    public static final int STEP_Y = SIZE_XZ * SIZE_XZ;
+
+    private static final int HALO_MIN = -1;
+    private static final int[] HALO_DELTAS = {-1, 0, 1};
+
+    //ids are unsigned bytes, as in the section palettes
+    private final byte[] ids = new byte[SIZE_XZ * SIZE_XZ * SIZE_Y];
+    private ChunkSnapshot snapshot;
+    private int layerY;
+
+    public NeighborhoodBuffer() {
+
+    }
+
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getY() {
+        return layerY;
+    }
+
+    //first and last local coordinate of the buffer that falls in the section delta away from the layer
+    private static int rangeStart(int delta, int size) {
+        return switch (delta) {
+            case -1 -> HALO_MIN;
+            case 0 -> 0;
+            default -> size;
+        };
+    }
+
+    private static int rangeEnd(int delta, int size) {
+        return switch (delta) {
+            case -1 -> -1;
+            case 0 -> size - 1;
+            default -> size;
+        };
+    }
+
+    public void fill(ChunkSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.layerY = snapshot.getY();
+
+        for (int dy : HALO_DELTAS) {
+            for (int dz : HALO_DELTAS) {
+                for (int dx : HALO_DELTAS) {
+                    //local z grows along -z, so the section south of the layer comes first
+                    copySection(snapshot.getSection(dx, dy, -dz), dx, dy, dz);
+                }
+            }
+        }
+    }
+
+    private void copySection(ChunkSection section, int dx, int dy, int dz) {
+        int xStart = rangeStart(dx, CHUNK_SIZE);
+        int xEnd = rangeEnd(dx, CHUNK_SIZE);
+        int yStart = rangeStart(dy, ChunkLayer.HEIGHT);
+        int yEnd = rangeEnd(dy, ChunkLayer.HEIGHT);
+        int zStart = rangeStart(dz, CHUNK_SIZE);
+        int zEnd = rangeEnd(dz, CHUNK_SIZE);
+
+        int uniformId = -1;
+        if (section == null || section.isEmpty()) {
+            uniformId = 0;
+        } else if (section.isUniform()) {
+            uniformId = section.getUniformId();
+        }
+
+        for (int y = yStart; y <= yEnd; y++) {
+            int sectionY = y - (dy * ChunkLayer.HEIGHT);
+            for (int z = zStart; z <= zEnd; z++) {
+                int sectionZ = z - (dz * CHUNK_SIZE);
+                int row = localIndex(0, y, z);
+                if (uniformId != -1) {
+                    Arrays.fill(this.ids, row + xStart, row + xEnd + 1, (byte) uniformId);
+                    continue;
+                }
+                int sectionRow = (sectionZ * CHUNK_SIZE) + (sectionY * ChunkSection.BLOCKS_PER_Y);
+                for (int x = xStart; x <= xEnd; x++) {
+                    int sectionX = x - (dx * CHUNK_SIZE);
+                    this.ids[row + x] = (byte) section.get(sectionX + sectionRow);
+                }
+            }
+        }
+    }
+
+    //x, y and z relative to the layer, from -1 to the size of the layer, z grows along -z
+    private static int localIndex(int x, int y, int z) {
+        return (x - HALO_MIN) + ((z - HALO_MIN) * SIZE_XZ) + ((y - HALO_MIN) * STEP_Y);
+    }
+
+    //chunk block coordinates of a block of the layer or of its halo
+    public int index(int chunkBlockX, int chunkBlockY, int chunkBlockZ) {
+        return localIndex(chunkBlockX, chunkBlockY - this.layerY, -chunkBlockZ);
+    }
+
+    public int getBlockId(int index) {
+        return Byte.toUnsignedInt(this.ids[index]);
+    }
+
+}
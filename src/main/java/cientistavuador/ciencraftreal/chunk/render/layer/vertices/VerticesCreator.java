@@ -26,10 +26,14 @@
  */
 package cientistavuador.ciencraftreal.chunk.render.layer.vertices;
 
+import cientistavuador.ciencraftreal.block.AmbientOcclusion;
 import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.block.BlockRegister;
 import cientistavuador.ciencraftreal.block.BlockTransparency;
 import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.block.SimpleBlock;
 import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
 import static cientistavuador.ciencraftreal.chunk.Chunk.CHUNK_SIZE;
 import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayer;
 import java.util.ArrayDeque;
@@ -40,32 +44,56 @@ import java.util.ArrayDeque;
  */
 public class VerticesCreator {
 
-    public static VerticesStream generateStream(ChunkLayer layer, boolean coloredGlassOnly) {
-        VerticesStream stream = new VerticesStream(layer.getY());
+    //-Dciencraft.greedy=false generates one quad per block face, to compare with the greedy mesher
+    public static boolean GREEDY_MESHING = Boolean.parseBoolean(System.getProperty("ciencraft.greedy", "true"));
 
-        Chunk chunk = layer.getChunk();
-        int yPos = layer.getY();
+    public static LayerStreams generateStreams(ChunkSnapshot snapshot) {
+        LayerStreams streams = new LayerStreams(snapshot.getY());
+        generateStreams(streams, snapshot);
+        return streams;
+    }
+
+    //resets the streams to the layer of the snapshot before meshing it,
+    //colored glass goes to the translucent stream and everything else to the opaque one
+    public static void generateStreams(LayerStreams streams, ChunkSnapshot snapshot) {
+        streams.reset(snapshot.getY());
+        VerticesStream opaque = streams.getOpaque();
+
+        MesherContext context = MesherContext.get();
+        NeighborhoodBuffer blocks = context.getNeighborhoodBuffer();
+        blocks.fill(snapshot);
+        AmbientOcclusion ao = context.getAmbientOcclusion();
+        GreedyMesher mesher = null;
+        if (GREEDY_MESHING) {
+            mesher = context.getGreedyMesher();
+            mesher.start(opaque, blocks);
+        }
+
+        int yPos = snapshot.getY();
         
         for (int y = (yPos + (ChunkLayer.HEIGHT - 1)); y >= yPos; y--) {
             for (int x = 0; x < CHUNK_SIZE; x++) {
                 for (int z = 0; z >= -(CHUNK_SIZE - 1); z--) {
-                    Block block = chunk.getBlock(x, y, z);
+                    int id = blocks.getBlockId(blocks.index(x, y, z));
 
-                    if (block == Blocks.AIR) {
+                    if (id == 0) {
                         continue;
                     }
 
-                    if (coloredGlassOnly && !BlockTransparency.LIKE_COLORED_GLASS.equals(block.getBlockTransparency())) {
-                        continue;
-                    }
+                    Block block = BlockRegister.getBlock(id);
 
-                    if (!coloredGlassOnly && BlockTransparency.LIKE_COLORED_GLASS.equals(block.getBlockTransparency())) {
+                    VerticesStream stream = opaque;
+                    if (BlockTransparency.LIKE_COLORED_GLASS.equals(block.getBlockTransparency())) {
+                        stream = streams.translucentStream();
+                    } else if (mesher != null && GreedyMesher.isMerged(block)) {
+                        mesher.addBlock((SimpleBlock) block, x, y, z);
                         continue;
                     }
 
                     block.generateVertices(
                             stream,
-                            chunk,
+                            blocks,
+                            ao,
                             x,
                             y,
                             z
@@ -74,8 +102,10 @@ public class VerticesCreator {
                 }
             }
         }
-        
-        return stream;
+
+        if (mesher != null) {
+            mesher.finish();
+        }
     }
 
     @Deprecated
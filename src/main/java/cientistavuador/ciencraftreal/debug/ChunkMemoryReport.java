@@ -0,0 +1,112 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.debug;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSection;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import java.io.PrintStream;
+
+/**
+ *
+ * @author Cien
+ */
+public class ChunkMemoryReport {
+
+    public static final int FLAT_LAYOUT_MEMORY_USAGE = ChunkSection.ARRAY_OVERHEAD + (Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE * Chunk.CHUNK_HEIGHT);
+
+    private static String format(float f) {
+        return String.format("%.2f", f);
+    }
+
+    private static float toKiB(long bytes) {
+        return bytes / 1024f;
+    }
+
+    public static void print(WorldCamera world, PrintStream out) {
+        int chunks = 0;
+        int sections = 0;
+        long flatUsage = 0;
+        long sectionsUsage = 0;
+        int airSections = 0;
+        int uniformSections = 0;
+        int[] sectionsPerBits = new int[ChunkSection.DIRECT_BITS + 1];
+
+        for (int i = 0; i < world.length(); i++) {
+            Chunk c = world.chunkAtIndex(i);
+            if (c == null) {
+                continue;
+            }
+            chunks++;
+            flatUsage += FLAT_LAYOUT_MEMORY_USAGE;
+            sectionsUsage += c.getMemoryUsage();
+            for (int j = 0; j < c.getNumberOfSections(); j++) {
+                sections++;
+                ChunkSection section = c.getSection(j);
+                if (section == null) {
+                    airSections++;
+                    continue;
+                }
+                if (section.isUniform()) {
+                    uniformSections++;
+                    continue;
+                }
+                sectionsPerBits[section.getBitsPerBlock()]++;
+            }
+        }
+
+        out.println("===Chunk Memory Report===");
+        try {
+            if (chunks == 0) {
+                out.println("No chunks loaded.");
+                return;
+            }
+            out.println(chunks + " chunk(s), " + sections + " section(s)");
+            out.println("Air (not allocated) - " + airSections + " section(s)");
+            out.println("Uniform - " + uniformSections + " section(s)");
+            for (int bits = 0; bits < sectionsPerBits.length; bits++) {
+                if (sectionsPerBits[bits] != 0) {
+                    out.println(bits + " bit(s) per block - " + sectionsPerBits[bits] + " section(s)");
+                }
+            }
+            out.println("=======");
+            out.println("Flat layout: " + format(toKiB(flatUsage)) + "KiB (" + format(toKiB(flatUsage / chunks)) + "KiB per chunk)");
+            out.println("Sections layout: " + format(toKiB(sectionsUsage)) + "KiB (" + format(toKiB(sectionsUsage / chunks)) + "KiB per chunk)");
+            out.println("Saved: " + format((1f - (sectionsUsage / (float) flatUsage)) * 100f) + "%");
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public static void print(WorldCamera world) {
+        print(world, System.out);
+    }
+
+    private ChunkMemoryReport() {
+
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.debug;
+
+import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.block.BlockRegister;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.ChunkSection;
+import cientistavuador.ciencraftreal.chunk.ChunkSnapshot;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.LayerStreams;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesCreator;
+import cientistavuador.ciencraftreal.chunk.render.layer.vertices.VerticesStream;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import cientistavuador.ciencraftreal.world.WorldEdit;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ *
+ * @author Cien
+ */
+public class SnapshotStressTest {
+
+    public static final double DURATION = 2.0;
+    public static final int EDITS_PER_SNAPSHOT = 64;
+
+    private static long checksum(ChunkSnapshot snapshot) {
+        long sum = 0;
+        int yStart = snapshot.getY() - 1;
+        int yEnd = snapshot.getY() + ChunkSection.HEIGHT;
+        for (int y = yStart; y <= yEnd; y++) {
+            for (int z = 1; z >= -Chunk.CHUNK_SIZE; z--) {
+                for (int x = -1; x <= Chunk.CHUNK_SIZE; x++) {
+                    sum = (sum * 31) + snapshot.getBlockId(x, y, z);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static boolean sameStream(VerticesStream a, VerticesStream b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Arrays.equals(a.vertices(), b.vertices()) && Arrays.equals(a.indices(), b.indices());
+    }
+
+    private static boolean check(ChunkSnapshot snapshot, long expectedChecksum) {
+        LayerStreams first = VerticesCreator.generateStreams(snapshot);
+        if (checksum(snapshot) != expectedChecksum) {
+            return false;
+        }
+        LayerStreams second = VerticesCreator.generateStreams(snapshot);
+        return sameStream(first.getOpaque(), second.getOpaque()) && sameStream(first.getTranslucent(), second.getTranslucent());
+    }
+
+    public static void run(WorldCamera world, PrintStream out) {
+        int blockX = (int) Math.floor(world.getCamera().getPosition().x());
+        int blockY = (int) Math.floor(world.getCamera().getPosition().y());
+        int blockZ = (int) Math.ceil(world.getCamera().getPosition().z());
+
+        int cX = Math.floorDiv(blockX, Chunk.CHUNK_SIZE);
+        int cZ = -Math.floorDiv(-blockZ, Chunk.CHUNK_SIZE);
+        Chunk chunk = world.getChunk(cX, cZ);
+        if (chunk == null) {
+            out.println("No chunk at the camera.");
+            return;
+        }
+        int sectionIndex = Math.min(Math.max(blockY, 0), Chunk.CHUNK_HEIGHT - 1) / ChunkSection.HEIGHT;
+        int yStart = sectionIndex * ChunkSection.HEIGHT;
+
+        Block[] backup = new Block[ChunkSection.NUMBER_OF_BLOCKS];
+        for (int i = 0; i < backup.length; i++) {
+            backup[i] = chunk.getBlock(i % Chunk.CHUNK_SIZE, yStart + (i / ChunkSection.BLOCKS_PER_Y), -((i / Chunk.CHUNK_SIZE) % Chunk.CHUNK_SIZE));
+        }
+
+        Random random = new Random();
+        int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+        ArrayDeque<CompletableFuture<Boolean>> inFlight = new ArrayDeque<>();
+
+        int snapshots = 0;
+        int edits = 0;
+        int failures = 0;
+
+        out.println("===Snapshot Stress Test===");
+        try {
+            long start = System.nanoTime();
+            while (((System.nanoTime() - start) / 1E9d) < DURATION) {
+                ChunkSnapshot snapshot = ChunkSnapshot.of(chunk, sectionIndex);
+                long expected = checksum(snapshot);
+                inFlight.add(CompletableFuture.supplyAsync(() -> check(snapshot, expected)));
+                snapshots++;
+
+                for (int i = 0; i < EDITS_PER_SNAPSHOT; i++) {
+                    Block block = BlockRegister.getBlock(random.nextInt(BlockRegister.numberOfRegisteredBlocks()));
+                    chunk.setBlockWithoutInvalidation(
+                            random.nextInt(Chunk.CHUNK_SIZE),
+                            yStart + random.nextInt(ChunkSection.HEIGHT),
+                            -random.nextInt(Chunk.CHUNK_SIZE),
+                            block
+                    );
+                    edits++;
+                }
+
+                while (inFlight.size() >= maxInFlight || (!inFlight.isEmpty() && inFlight.peek().isDone())) {
+                    if (!inFlight.poll().get()) {
+                        failures++;
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                if (!inFlight.poll().get()) {
+                    failures++;
+                }
+            }
+
+            out.println("Chunk " + cX + ", " + cZ + ", section " + sectionIndex);
+            out.println("Snapshots meshed - " + snapshots + ", Edits - " + edits);
+            out.println("Inconsistent meshes - " + failures + (failures == 0 ? " (PASSED)" : " (FAILED)"));
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            try (WorldEdit edit = world.edit()) {
+                for (int i = 0; i < backup.length; i++) {
+                    edit.setBlock(
+                            (cX * Chunk.CHUNK_SIZE) + (i % Chunk.CHUNK_SIZE),
+                            yStart + (i / ChunkSection.BLOCKS_PER_Y),
+                            (cZ * Chunk.CHUNK_SIZE) - ((i / Chunk.CHUNK_SIZE) % Chunk.CHUNK_SIZE),
+                            backup[i]
+                    );
+                }
+            }
+            out.println("=======");
+        }
+    }
+
+    public static void run(WorldCamera world) {
+        run(world, System.out);
+    }
+
+    private SnapshotStressTest() {
+
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.debug;
+
+import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.block.Blocks;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.world.WorldCamera;
+import cientistavuador.ciencraftreal.world.WorldEdit;
+import java.io.PrintStream;
+
+/**
+ *
+ * @author Cien
+ */
+public class WorldEditBenchmark {
+
+    public static final int SIZE = 64;
+
+    private static String format(double d) {
+        return String.format("%.2f", d);
+    }
+
+    private static Block[] backup(WorldCamera world, int x0, int y0, int z0) {
+        Block[] blocks = new Block[SIZE * SIZE * SIZE];
+        int index = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    blocks[index++] = world.getWorldBlock(x0 + x, y0 + y, z0 - z);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static void restore(WorldCamera world, int x0, int y0, int z0, Block[] blocks) {
+        try (WorldEdit edit = world.edit()) {
+            int index = 0;
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    for (int x = 0; x < SIZE; x++) {
+                        edit.setBlock(x0 + x, y0 + y, z0 - z, blocks[index++]);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void run(WorldCamera world, PrintStream out) {
+        int x0 = (int) Math.floor(world.getCamera().getPosition().x()) - (SIZE / 2);
+        int y0 = Chunk.CHUNK_HEIGHT - SIZE;
+        int z0 = (int) Math.floor(world.getCamera().getPosition().z()) + (SIZE / 2);
+
+        Block[] blocks = backup(world, x0, y0, z0);
+
+        out.println("===World Edit Benchmark (" + SIZE + "x" + SIZE + "x" + SIZE + " fill)===");
+        try {
+            long time = System.nanoTime();
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    for (int x = 0; x < SIZE; x++) {
+                        world.setWorldBlock(x0 + x, y0 + y, z0 - z, Blocks.STONE);
+                    }
+                }
+            }
+            time = System.nanoTime() - time;
+            out.println("setWorldBlock - " + format(time / 1E6d) + "ms");
+
+            restore(world, x0, y0, z0, blocks);
+
+            int changed;
+            int invalidated;
+            time = System.nanoTime();
+            try (WorldEdit edit = world.edit()) {
+                changed = edit.fill(x0, y0, z0, x0 + SIZE - 1, y0 + SIZE - 1, z0 - (SIZE - 1), Blocks.STONE);
+                invalidated = edit.apply();
+            }
+            time = System.nanoTime() - time;
+            out.println("WorldEdit.fill - " + format(time / 1E6d) + "ms, " + changed + " block(s) changed, " + invalidated + " layer(s) invalidated");
+
+            restore(world, x0, y0, z0, blocks);
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public static void run(WorldCamera world) {
+        run(world, System.out);
+    }
+
+    private WorldEditBenchmark() {
+
+    }
+
+}
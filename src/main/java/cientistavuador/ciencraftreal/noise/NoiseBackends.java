@@ -0,0 +1,101 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.noise;
+
+/**
+ * Selects the noise backend used by the world generator.
+ * <p>
+ * The vector backend is only built with the vector maven profile (-P vector)
+ * and needs the jdk.incubator.vector module, which is only resolved when the
+ * JVM is started with --add-modules jdk.incubator.vector; without either the
+ * scalar backend is used. The backend is chosen with
+ * -Dciencraft.noise=scalar|vector|auto, scalar by default: the vector kernels
+ * are faster per sample once compiled by C2 but run very slowly until then,
+ * and the noise grids are only a small part of the time of a chunk.
+ *
+ * @author Cien
+ */
+public class NoiseBackends {
+
+    public static final String VECTOR_MODULE = "jdk.incubator.vector";
+    public static final String VECTOR_CLASS = "cientistavuador.ciencraftreal.noise.VectorNoiseBackend";
+
+    public static final NoiseBackend SCALAR = new ScalarNoiseBackend();
+    public static final NoiseBackend VECTOR = loadVector();
+
+    private static volatile NoiseBackend backend = forName(System.getProperty("ciencraft.noise", "scalar"));
+
+    private static NoiseBackend loadVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (NoiseBackend) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    public static boolean isVectorAvailable() {
+        return VECTOR != null;
+    }
+
+    //falls back to the scalar backend if the vector one was requested but is not available
+    public static NoiseBackend forName(String name) {
+        switch (name) {
+            case "scalar":
+                return SCALAR;
+            case "vector":
+                if (VECTOR == null) {
+                    System.out.println("Vector noise backend requested but " + VECTOR_MODULE + " is not available, using scalar.");
+                    return SCALAR;
+                }
+                return VECTOR;
+            case "auto":
+                return (VECTOR == null ? SCALAR : VECTOR);
+            default:
+                System.out.println("Unknown noise backend " + name + ", using scalar.");
+                return SCALAR;
+        }
+    }
+
+    public static NoiseBackend get() {
+        return backend;
+    }
+
+    public static void set(NoiseBackend backend) {
+        if (backend == null) {
+            throw new NullPointerException("Backend is null");
+        }
+        NoiseBackends.backend = backend;
+    }
+
+    private NoiseBackends() {
+
+    }
+
+}
@@ -5,39 +5,39 @@ package cientistavuador.ciencraftreal.noise;
 
 public class OpenSimplex2 {
 
-    private static final long PRIME_X = 0x5205402B9270C86FL;
-    private static final long PRIME_Y = 0x598CD327003817B5L;
-    private static final long PRIME_Z = 0x5BCC226E9FA0BACBL;
+    static final long PRIME_X = 0x5205402B9270C86FL;
+    static final long PRIME_Y = 0x598CD327003817B5L;
+    static final long PRIME_Z = 0x5BCC226E9FA0BACBL;
     private static final long PRIME_W = 0x56CC5227E58F554BL;
-    private static final long HASH_MULTIPLIER = 0x53A3F72DEEC546F5L;
-    private static final long SEED_FLIP_3D = -0x52D547B2E96ED629L;
+    static final long HASH_MULTIPLIER = 0x53A3F72DEEC546F5L;
+    static final long SEED_FLIP_3D = -0x52D547B2E96ED629L;
     private static final long SEED_OFFSET_4D = 0xE83DC3E0DA7164DL;
 
     private static final double ROOT2OVER2 = 0.7071067811865476;
-    private static final double SKEW_2D = 0.366025403784439;
-    private static final double UNSKEW_2D = -0.21132486540518713;
+    static final double SKEW_2D = 0.366025403784439;
+    static final double UNSKEW_2D = -0.21132486540518713;
 
-    private static final double ROOT3OVER3 = 0.577350269189626;
+    static final double ROOT3OVER3 = 0.577350269189626;
     private static final double FALLBACK_ROTATE_3D = 2.0 / 3.0;
-    private static final double ROTATE_3D_ORTHOGONALIZER = UNSKEW_2D;
+    static final double ROTATE_3D_ORTHOGONALIZER = UNSKEW_2D;
 
     private static final float SKEW_4D = -0.138196601125011f;
     private static final float UNSKEW_4D = 0.309016994374947f;
     private static final float LATTICE_STEP_4D = 0.2f;
 
-    private static final int N_GRADS_2D_EXPONENT = 7;
-    private static final int N_GRADS_3D_EXPONENT = 8;
+    static final int N_GRADS_2D_EXPONENT = 7;
+    static final int N_GRADS_3D_EXPONENT = 8;
     private static final int N_GRADS_4D_EXPONENT = 9;
-    private static final int N_GRADS_2D = 1 << N_GRADS_2D_EXPONENT;
-    private static final int N_GRADS_3D = 1 << N_GRADS_3D_EXPONENT;
+    static final int N_GRADS_2D = 1 << N_GRADS_2D_EXPONENT;
+    static final int N_GRADS_3D = 1 << N_GRADS_3D_EXPONENT;
     private static final int N_GRADS_4D = 1 << N_GRADS_4D_EXPONENT;
 
     private static final double NORMALIZER_2D = 0.01001634121365712;
     private static final double NORMALIZER_3D = 0.07969837668935331;
     private static final double NORMALIZER_4D = 0.0220065933241897;
 
-    private static final float RSQUARED_2D = 0.5f;
-    private static final float RSQUARED_3D = 0.6f;
+    static final float RSQUARED_2D = 0.5f;
+    static final float RSQUARED_3D = 0.6f;
     private static final float RSQUARED_4D = 0.6f;
 
 
@@ -439,6 +439,74 @@ public class OpenSimplex2 {
         return value;
     }
 
+    /*
+     * Grid Evaluators
+     */
+
+    /**
+     * 2D Simplex noise, standard lattice orientation, evaluated over a grid.
+     * out[i + j * w] is bit-exact with noise2(seed, x0 + i * dx, y0 + j * dy).
+     */
+    public static void noise2Grid(long seed, double x0, double y0, double dx, double dy, int w, int h, float[] out) {
+        noise2Grid(seed, x0, y0, dx, dy, 1.0, w, h, out);
+    }
+
+    /**
+     * 2D Simplex noise, standard lattice orientation, evaluated over a grid.
+     * out[i + j * w] is bit-exact with noise2(seed, (x0 + i * dx) / period, (y0 + j * dy) / period).
+     * The Y coordinate is computed once per row.
+     */
+    public static void noise2Grid(long seed, double x0, double y0, double dx, double dy, double period, int w, int h, float[] out) {
+        for (int j = 0; j < h; j++) {
+            double y = (y0 + j * dy) / period;
+            int index = j * w;
+            for (int i = 0; i < w; i++) {
+                out[index + i] = noise2(seed, (x0 + i * dx) / period, y);
+            }
+        }
+    }
+
+    /**
+     * 3D OpenSimplex2 noise, with better visual isotropy in (X, Z), evaluated over a grid.
+     * out[i + w * (j + h * k)] is bit-exact with noise3_ImproveXZ(seed, x0 + i * dx, y0 + j * dy, z0 + k * dz).
+     */
+    public static void noise3Grid_ImproveXZ(long seed, double x0, double y0, double z0, double dx, double dy, double dz, int w, int h, int d, float[] out) {
+        noise3Grid_ImproveXZ(seed, x0, y0, z0, dx, dy, dz, 1.0, w, h, d, out);
+    }
+
+    /**
+     * 3D OpenSimplex2 noise, with better visual isotropy in (X, Z), evaluated over a grid.
+     * out[i + w * (j + h * k)] is bit-exact with
+     * noise3_ImproveXZ(seed, (x0 + i * dx) / period, (y0 + j * dy) / period, (z0 + k * dz) / period).
+     * The XZ part of the rotation is computed once per column and the Y part once per row.
+     */
+    public static void noise3Grid_ImproveXZ(long seed, double x0, double y0, double z0, double dx, double dy, double dz, double period, int w, int h, int d, float[] out) {
+        double[] rows = new double[h];
+        for (int j = 0; j < h; j++) {
+            rows[j] = ((y0 + j * dy) / period) * ROOT3OVER3;
+        }
+
+        for (int k = 0; k < d; k++) {
+            double z = (z0 + k * dz) / period;
+            for (int i = 0; i < w; i++) {
+                double x = (x0 + i * dx) / period;
+
+                // Same rotation as noise3_ImproveXZ, split into its XZ and Y parts.
+                double xz = x + z;
+                double s2 = xz * ROTATE_3D_ORTHOGONALIZER;
+                double xs2 = x + s2;
+                double zs2 = z + s2;
+                double xzr = xz * -ROOT3OVER3;
+
+                int index = i + w * h * k;
+                for (int j = 0; j < h; j++) {
+                    double yy = rows[j];
+                    out[index + w * j] = noise3_UnrotatedBase(seed, xs2 + yy, xzr + yy, zs2 + yy);
+                }
+            }
+        }
+    }
+
     /*
      * Utility
      */
@@ -480,8 +548,8 @@ public class OpenSimplex2 {
      * gradients
      */
 
-    private static float[] GRADIENTS_2D;
-    private static float[] GRADIENTS_3D;
+    static float[] GRADIENTS_2D;
+    static float[] GRADIENTS_3D;
     private static float[] GRADIENTS_4D;
     static {
 
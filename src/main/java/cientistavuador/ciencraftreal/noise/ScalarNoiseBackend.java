@@ -0,0 +1,54 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.noise;
+
+/**
+ *
+ * @author Cien
+ */
+public class ScalarNoiseBackend implements NoiseBackend {
+
+    public ScalarNoiseBackend() {
+
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void noise2Grid(long seed, double x0, double y0, double dx, double dy, double period, int w, int h, float[] out) {
+        OpenSimplex2.noise2Grid(seed, x0, y0, dx, dy, period, w, h, out);
+    }
+
+    @Override
+    public void noise3Grid_ImproveXZ(long seed, double x0, double y0, double z0, double dx, double dy, double dz, double period, int w, int h, int d, float[] out) {
+        OpenSimplex2.noise3Grid_ImproveXZ(seed, x0, y0, z0, dx, dy, dz, period, w, h, d, out);
+    }
+
+}
@@ -42,6 +42,10 @@ public class ColorUBO {
     public static final int NULL = -1;
 
     public static ColorUBO create(int bindingPoint) {
+        if (Main.HEADLESS) {
+            //cpu side only
+            return new ColorUBO(bindingPoint, 0);
+        }
         int ubo = glGenBuffers();
         ColorUBO colorUbo = new ColorUBO(bindingPoint, ubo);
         ObjectCleaner.get().register(colorUbo, () -> {
@@ -66,11 +70,13 @@ public class ColorUBO {
         this.bindingPoint = bindingPoint;
         this.ubo = ubo;
 
-        glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
-        glBufferData(GL_UNIFORM_BUFFER, this.colorsRGBA, GL_DYNAMIC_DRAW);
-        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        if (this.ubo != 0) {
+            glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
+            glBufferData(GL_UNIFORM_BUFFER, this.colorsRGBA, GL_DYNAMIC_DRAW);
+            glBindBuffer(GL_UNIFORM_BUFFER, 0);
 
-        glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, this.ubo);
+            glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, this.ubo);
+        }
 
         for (int i = 0; i < SIZE; i++) {
             availableObjects.add(i);
@@ -120,7 +126,7 @@ public class ColorUBO {
     }
 
     public void updateUBO() {
-        if (!this.needsUpdateGlobal) {
+        if (!this.needsUpdateGlobal || this.ubo == 0) {
             return;
         }
         this.needsUpdateGlobal = false;
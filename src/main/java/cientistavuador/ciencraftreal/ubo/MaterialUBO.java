@@ -42,6 +42,10 @@ public class MaterialUBO {
     public static final int NULL = -1;
 
     public static MaterialUBO create(int bindingPoint) {
+        if (Main.HEADLESS) {
+            //cpu side only
+            return new MaterialUBO(bindingPoint, 0);
+        }
         int ubo = glGenBuffers();
         MaterialUBO materialUbo = new MaterialUBO(bindingPoint, ubo);
         ObjectCleaner.get().register(materialUbo, () -> {
@@ -69,11 +73,13 @@ public class MaterialUBO {
         this.bindingPoint = bindingPoint;
         this.ubo = ubo;
 
-        glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
-        glBufferData(GL_UNIFORM_BUFFER, SIZE * 4, GL_DYNAMIC_DRAW);
-        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        if (this.ubo != 0) {
+            glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
+            glBufferData(GL_UNIFORM_BUFFER, SIZE * 4, GL_DYNAMIC_DRAW);
+            glBindBuffer(GL_UNIFORM_BUFFER, 0);
 
-        glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, this.ubo);
+            glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, this.ubo);
+        }
 
         for (int i = 0; i < SIZE; i++) {
             availableObjects.add(i);
@@ -141,7 +147,7 @@ public class MaterialUBO {
     }
     
     public void updateUBO() {
-        if (!this.needsUpdateGlobal) {
+        if (!this.needsUpdateGlobal || this.ubo == 0) {
             return;
         }
         this.needsUpdateGlobal = false;
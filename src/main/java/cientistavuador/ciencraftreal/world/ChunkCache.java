@@ -0,0 +1,178 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of recently evicted chunks, kept in their palette compressed
+ * serialized form and bounded by a byte budget.
+ *
+ * @author Cien
+ */
+public class ChunkCache {
+
+    public static final long DEFAULT_BUDGET = 64L * 1024L * 1024L;
+    public static final int ENTRY_OVERHEAD = 64;
+    public static final int UNCOMPRESSED_CHUNK_SIZE = Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE * Chunk.CHUNK_HEIGHT;
+
+    private final LinkedHashMap<Long, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long budget;
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public ChunkCache(long budget) {
+        this.budget = budget;
+    }
+
+    public ChunkCache() {
+        this(DEFAULT_BUDGET);
+    }
+
+    private static int entrySize(byte[] data) {
+        return data.length + ENTRY_OVERHEAD;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Long, byte[]>> it = this.entries.entrySet().iterator();
+        while (this.usedBytes > this.budget && it.hasNext()) {
+            this.usedBytes -= entrySize(it.next().getValue());
+            it.remove();
+            this.evictions++;
+        }
+    }
+
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    public synchronized void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Negative budget: " + budget);
+        }
+        this.budget = budget;
+        trim();
+    }
+
+    public void put(Chunk chunk) {
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.getSerializedSize());
+        chunk.write(buffer);
+        byte[] data = buffer.array();
+
+        synchronized (this) {
+            if (entrySize(data) > this.budget) {
+                return;
+            }
+            byte[] old = this.entries.put(ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ()), data);
+            if (old != null) {
+                this.usedBytes -= entrySize(old);
+            }
+            this.usedBytes += entrySize(data);
+            trim();
+        }
+    }
+
+    public boolean load(Chunk chunk) {
+        byte[] data;
+        synchronized (this) {
+            data = this.entries.remove(ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ()));
+            if (data == null) {
+                this.misses++;
+                return false;
+            }
+            this.usedBytes -= entrySize(data);
+            this.hits++;
+        }
+        chunk.read(ByteBuffer.wrap(data));
+        return true;
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getBytesSaved() {
+        return (((long) UNCOMPRESSED_CHUNK_SIZE) * this.entries.size()) - this.usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized float getHitRate() {
+        long total = this.hits + this.misses;
+        if (total == 0) {
+            return 0f;
+        }
+        return this.hits / (float) total;
+    }
+
+    private static String format(float f) {
+        return String.format("%.2f", f);
+    }
+
+    public synchronized void print(PrintStream out) {
+        out.println("===Chunk Cache===");
+        try {
+            out.println(this.entries.size() + " chunk(s), " + format(this.usedBytes / 1024f) + "KiB of " + format(this.budget / 1024f) + "KiB");
+            out.println("Hits - " + this.hits + ", Misses - " + this.misses + " (hit rate: " + format(getHitRate() * 100f) + "%)");
+            out.println("Evictions - " + this.evictions);
+            out.println("Saved by compression - " + format(getBytesSaved() / 1024f) + "KiB");
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import java.util.function.Consumer;
+
+/**
+ * Toroidal grid of the loaded chunks, a chunk is stored at its world position
+ * modulo the grid size, so moving the center only touches the rows and columns
+ * that were exposed.
+ *
+ * @author Cien
+ */
+public class ChunkGrid {
+
+    private final int radius;
+    private final int size;
+    private final Chunk[] chunks;
+    private int centerX;
+    private int centerZ;
+
+    public ChunkGrid(int radius, int centerX, int centerZ) {
+        this.radius = radius;
+        this.size = (radius * 2) + 1;
+        this.chunks = new Chunk[this.size * this.size];
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterZ() {
+        return centerZ;
+    }
+
+    private int slot(int chunkX, int chunkZ) {
+        return Math.floorMod(chunkX, this.size) + (Math.floorMod(chunkZ, this.size) * this.size);
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return Math.abs(chunkX - this.centerX) <= this.radius && Math.abs(chunkZ - this.centerZ) <= this.radius;
+    }
+
+    public Chunk get(int chunkX, int chunkZ) {
+        Chunk c = this.chunks[slot(chunkX, chunkZ)];
+        if (c != null && c.getChunkX() == chunkX && c.getChunkZ() == chunkZ) {
+            return c;
+        }
+        return null;
+    }
+
+    public void set(Chunk chunk) {
+        if (!contains(chunk.getChunkX(), chunk.getChunkZ())) {
+            throw new IllegalArgumentException("Chunk " + chunk.getChunkX() + ", " + chunk.getChunkZ() + " is outside of the grid.");
+        }
+        this.chunks[slot(chunk.getChunkX(), chunk.getChunkZ())] = chunk;
+    }
+
+    private void evict(int chunkX, int chunkZ, Consumer<Chunk> evicted) {
+        int slot = slot(chunkX, chunkZ);
+        Chunk c = this.chunks[slot];
+        if (c != null && (c.getChunkX() != chunkX || c.getChunkZ() != chunkZ)) {
+            this.chunks[slot] = null;
+            evicted.accept(c);
+        }
+    }
+
+    public void moveCenter(int newCenterX, int newCenterZ, Consumer<Chunk> evicted) {
+        int translationX = newCenterX - this.centerX;
+        int translationZ = newCenterZ - this.centerZ;
+
+        if (translationX == 0 && translationZ == 0) {
+            return;
+        }
+
+        this.centerX = newCenterX;
+        this.centerZ = newCenterZ;
+
+        if (Math.abs(translationX) >= this.size || Math.abs(translationZ) >= this.size) {
+            for (int i = 0; i < this.chunks.length; i++) {
+                Chunk c = this.chunks[i];
+                if (c != null) {
+                    this.chunks[i] = null;
+                    evicted.accept(c);
+                }
+            }
+            return;
+        }
+
+        int minX = newCenterX - this.radius;
+        int maxX = newCenterX + this.radius;
+        int minZ = newCenterZ - this.radius;
+        int maxZ = newCenterZ + this.radius;
+
+        int exposedMinX = (translationX > 0 ? maxX - translationX + 1 : minX);
+        int exposedMaxX = (translationX > 0 ? maxX : minX - translationX - 1);
+        for (int x = exposedMinX; x <= exposedMaxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                evict(x, z, evicted);
+            }
+        }
+
+        int exposedMinZ = (translationZ > 0 ? maxZ - translationZ + 1 : minZ);
+        int exposedMaxZ = (translationZ > 0 ? maxZ : minZ - translationZ - 1);
+        for (int z = exposedMinZ; z <= exposedMaxZ; z++) {
+            for (int x = minX; x <= maxX; x++) {
+                evict(x, z, evicted);
+            }
+        }
+    }
+
+    public int length() {
+        return this.chunks.length;
+    }
+
+    public Chunk chunkAt(int index) {
+        return this.chunks[index];
+    }
+
+}
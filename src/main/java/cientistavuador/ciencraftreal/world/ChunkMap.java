@@ -0,0 +1,222 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Cien
+ * @param <T> the value type
+ */
+public class ChunkMap<T> {
+
+    public static long key(int chunkX, int chunkZ) {
+        return (((long) chunkX) << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        public Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        public int find(long key) {
+            int slot = hash(key) & this.mask;
+            while (this.values[slot] != null) {
+                if (this.keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -(slot + 1);
+        }
+    }
+
+    //replaced as a whole when resizing, so readers on other threads never see mismatched arrays
+    private volatile Table table;
+    private int size = 0;
+
+    public ChunkMap(int expectedSize) {
+        this.table = new Table(Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1);
+    }
+
+    public ChunkMap() {
+        this(16);
+    }
+
+    private void rehash(int newCapacity) {
+        Table old = this.table;
+        Table resized = new Table(newCapacity);
+
+        for (int i = 0; i < old.values.length; i++) {
+            if (old.values[i] != null) {
+                int slot = -resized.find(old.keys[i]) - 1;
+                resized.keys[slot] = old.keys[i];
+                resized.values[slot] = old.values[i];
+            }
+        }
+
+        this.table = resized;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        Table t = this.table;
+        int slot = t.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        return (T) t.values[slot];
+    }
+
+    public T get(int chunkX, int chunkZ) {
+        return get(key(chunkX, chunkZ));
+    }
+
+    @SuppressWarnings("unchecked")
+    public T put(long key, T value) {
+        if (value == null) {
+            return remove(key);
+        }
+        Table t = this.table;
+        int slot = t.find(key);
+        if (slot >= 0) {
+            T old = (T) t.values[slot];
+            t.values[slot] = value;
+            return old;
+        }
+        slot = -slot - 1;
+        t.keys[slot] = key;
+        t.values[slot] = value;
+        this.size++;
+        if (this.size * 2 > t.values.length) {
+            rehash(t.values.length * 2);
+        }
+        return null;
+    }
+
+    public T put(int chunkX, int chunkZ, T value) {
+        return put(key(chunkX, chunkZ), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T remove(long key) {
+        Table t = this.table;
+        int slot = t.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        T old = (T) t.values[slot];
+
+        //backward shift deletion, keeps the probe sequences intact without tombstones
+        int hole = slot;
+        int next = (hole + 1) & t.mask;
+        while (t.values[next] != null) {
+            int ideal = hash(t.keys[next]) & t.mask;
+            if (((next - ideal) & t.mask) >= ((next - hole) & t.mask)) {
+                t.keys[hole] = t.keys[next];
+                t.values[hole] = t.values[next];
+                hole = next;
+            }
+            next = (next + 1) & t.mask;
+        }
+        t.values[hole] = null;
+        t.keys[hole] = 0;
+        this.size--;
+
+        return old;
+    }
+
+    public T remove(int chunkX, int chunkZ) {
+        return remove(key(chunkX, chunkZ));
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return this.table.find(key(chunkX, chunkZ)) >= 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.table.values.length;
+    }
+
+    public long keyAt(int slot) {
+        return this.table.keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T valueAt(int slot) {
+        return (T) this.table.values[slot];
+    }
+
+    public long[] keys() {
+        Table t = this.table;
+        long[] result = new long[this.size];
+        int index = 0;
+        for (int i = 0; i < t.values.length; i++) {
+            if (t.values[i] != null) {
+                result[index++] = t.keys[i];
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        Table t = this.table;
+        Arrays.fill(t.values, null);
+        Arrays.fill(t.keys, 0);
+        this.size = 0;
+    }
+
+}
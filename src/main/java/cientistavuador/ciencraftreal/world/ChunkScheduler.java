@@ -0,0 +1,248 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Loads and generates chunks on dedicated threads, always running the job
+ * with the lowest priority value first.
+ *
+ * @author Cien
+ */
+public class ChunkScheduler {
+
+    @FunctionalInterface
+    public static interface Ranking {
+
+        double rank(int chunkX, int chunkZ);
+    }
+
+    public static class Job implements Comparable<Job> {
+
+        private final int chunkX;
+        private final int chunkZ;
+        private final Supplier<Chunk> supplier;
+        private final CompletableFuture<Chunk> future = new CompletableFuture<>();
+        private final long submitTime = System.nanoTime();
+        private double priority;
+        private boolean started = false;
+
+        private Job(int chunkX, int chunkZ, Supplier<Chunk> supplier, double priority) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.supplier = supplier;
+            this.priority = priority;
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public long getSubmitTime() {
+            return submitTime;
+        }
+
+        public boolean isDone() {
+            return this.future.isDone();
+        }
+
+        public Chunk get() {
+            try {
+                return this.future.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        @Override
+        public int compareTo(Job o) {
+            return Double.compare(this.priority, o.priority);
+        }
+
+    }
+
+    public static int defaultNumberOfThreads() {
+        return Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+    }
+
+    private final PriorityQueue<Job> queue = new PriorityQueue<>();
+    private final Thread[] threads;
+    private boolean shutdown = false;
+
+    private long submitted = 0;
+    private long completed = 0;
+    private long dropped = 0;
+    private long reranks = 0;
+
+    public ChunkScheduler(int numberOfThreads) {
+        this.threads = new Thread[numberOfThreads];
+        for (int i = 0; i < this.threads.length; i++) {
+            Thread t = new Thread(this::work, "Chunk Scheduler " + i);
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            this.threads[i] = t;
+            t.start();
+        }
+    }
+
+    public ChunkScheduler() {
+        this(defaultNumberOfThreads());
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            synchronized (this) {
+                while (this.queue.isEmpty() && !this.shutdown) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                if (this.shutdown) {
+                    return;
+                }
+                job = this.queue.poll();
+                job.started = true;
+            }
+            try {
+                job.future.complete(job.supplier.get());
+            } catch (Throwable t) {
+                job.future.completeExceptionally(t);
+            }
+            synchronized (this) {
+                this.completed++;
+            }
+        }
+    }
+
+    public synchronized Job submit(int chunkX, int chunkZ, double priority, Supplier<Chunk> supplier) {
+        if (this.shutdown) {
+            throw new IllegalStateException("Scheduler was shutdown.");
+        }
+        Job job = new Job(chunkX, chunkZ, supplier, priority);
+        this.queue.add(job);
+        this.submitted++;
+        notify();
+        return job;
+    }
+
+    public synchronized boolean cancel(Job job) {
+        if (job.started || !this.queue.remove(job)) {
+            return false;
+        }
+        job.future.cancel(false);
+        this.dropped++;
+        return true;
+    }
+
+    public synchronized void rerank(Ranking ranking) {
+        if (this.queue.isEmpty()) {
+            return;
+        }
+        List<Job> jobs = new ArrayList<>(this.queue);
+        this.queue.clear();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            job.priority = ranking.rank(job.chunkX, job.chunkZ);
+        }
+        this.queue.addAll(jobs);
+        this.reranks++;
+    }
+
+    public synchronized int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    public int getNumberOfThreads() {
+        return this.threads.length;
+    }
+
+    public synchronized long getSubmitted() {
+        return submitted;
+    }
+
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized long getReranks() {
+        return reranks;
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            this.shutdown = true;
+            for (Job job : this.queue) {
+                job.future.cancel(false);
+            }
+            this.queue.clear();
+            notifyAll();
+        }
+        for (Thread t : this.threads) {
+            try {
+                t.join();
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    public synchronized void print(PrintStream out) {
+        out.println("===Chunk Scheduler===");
+        try {
+            out.println("Threads - " + this.threads.length);
+            out.println("Queue depth - " + this.queue.size());
+            out.println("Submitted - " + this.submitted + ", Completed - " + this.completed + ", Dropped - " + this.dropped);
+            out.println("Reranks - " + this.reranks);
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+}
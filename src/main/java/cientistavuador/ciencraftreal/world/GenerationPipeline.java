@@ -0,0 +1,237 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.generation.ChunkGenerator;
+import cientistavuador.ciencraftreal.chunk.generation.ChunkGeneratorFactory;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates chunks in three stages (terrain, decoration and finalization) on
+ * a work stealing pool. A chunk is only decorated after the terrain of its
+ * 3x3 neighborhood is done; the terrain of each neighbor is generated once
+ * and shared by every chunk that needs it.
+ *
+ * @author Cien
+ */
+public class GenerationPipeline {
+
+    private static class Entry {
+
+        private final CompletableFuture<ChunkGenerator> terrain;
+        private CompletableFuture<Chunk> result = null;
+
+        public Entry(CompletableFuture<ChunkGenerator> terrain) {
+            this.terrain = terrain;
+        }
+    }
+
+    private final WorldCamera world;
+    private final ChunkGeneratorFactory factory;
+    private final ExecutorService pool;
+    private final ChunkMap<Entry> entries = new ChunkMap<>();
+
+    private final AtomicLong terrainGenerated = new AtomicLong();
+    private final AtomicLong terrainTime = new AtomicLong();
+    private final AtomicLong chunksDecorated = new AtomicLong();
+    private final AtomicLong decorationTime = new AtomicLong();
+    private final AtomicLong finalizationTime = new AtomicLong();
+    private long pruned = 0;
+
+    public GenerationPipeline(WorldCamera world, ChunkGeneratorFactory factory, int numberOfThreads) {
+        this.world = world;
+        this.factory = factory;
+        this.pool = Executors.newWorkStealingPool(numberOfThreads);
+    }
+
+    public GenerationPipeline(WorldCamera world, ChunkGeneratorFactory factory) {
+        this(world, factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    private ChunkGenerator generateTerrain(int chunkX, int chunkZ) {
+        long time = System.nanoTime();
+        ChunkGenerator generator = this.factory.create(new Chunk(this.world, chunkX, chunkZ));
+        generator.generateTerrain();
+        this.terrainTime.addAndGet(System.nanoTime() - time);
+        this.terrainGenerated.incrementAndGet();
+        return generator;
+    }
+
+    private Entry newEntry(int chunkX, int chunkZ) {
+        Entry entry = new Entry(CompletableFuture.supplyAsync(() -> generateTerrain(chunkX, chunkZ), this.pool));
+        this.entries.put(chunkX, chunkZ, entry);
+        return entry;
+    }
+
+    private Chunk decorate(ChunkGenerator[] neighborhood) {
+        ChunkGenerator generator = neighborhood[4];
+
+        long time = System.nanoTime();
+        generator.decorate(neighborhood);
+        long decorated = System.nanoTime();
+        generator.finish();
+        long finished = System.nanoTime();
+
+        this.decorationTime.addAndGet(decorated - time);
+        this.finalizationTime.addAndGet(finished - decorated);
+        this.chunksDecorated.incrementAndGet();
+
+        Chunk chunk = generator.getChunk();
+        chunk.markGenerated();
+        return chunk;
+    }
+
+    public synchronized CompletableFuture<Chunk> submit(int chunkX, int chunkZ) {
+        Entry center = this.entries.get(chunkX, chunkZ);
+        if (center == null || center.result != null) {
+            //the chunk of a decorated entry was already handed out, start over with fresh terrain
+            center = newEntry(chunkX, chunkZ);
+        }
+
+        List<CompletableFuture<ChunkGenerator>> terrains = new ArrayList<>(9);
+        for (int z = -1; z <= 1; z++) {
+            for (int x = -1; x <= 1; x++) {
+                Entry entry;
+                if (x == 0 && z == 0) {
+                    entry = center;
+                } else {
+                    entry = this.entries.get(chunkX + x, chunkZ + z);
+                    if (entry == null) {
+                        entry = newEntry(chunkX + x, chunkZ + z);
+                    }
+                }
+                terrains.add(entry.terrain);
+            }
+        }
+
+        //index (x + 1) + ((z + 1) * 3), z is the outer loop
+        CompletableFuture<Chunk> result = CompletableFuture.allOf(terrains.toArray(new CompletableFuture<?>[0])).thenApplyAsync((v) -> {
+            ChunkGenerator[] neighborhood = new ChunkGenerator[terrains.size()];
+            for (int i = 0; i < neighborhood.length; i++) {
+                neighborhood[i] = terrains.get(i).join();
+            }
+            return decorate(neighborhood);
+        }, this.pool);
+        center.result = result;
+        return result;
+    }
+
+    public Chunk generate(int chunkX, int chunkZ) {
+        try {
+            return submit(chunkX, chunkZ).get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    //forgets the terrain of every chunk outside of the inclusive area
+    public synchronized void prune(int minX, int minZ, int maxX, int maxZ) {
+        for (long key : this.entries.keys()) {
+            int x = ChunkMap.keyX(key);
+            int z = ChunkMap.keyZ(key);
+            if (x < minX || x > maxX || z < minZ || z > maxZ) {
+                this.entries.remove(key);
+                this.pruned++;
+            }
+        }
+    }
+
+    //forgets the terrain of every chunk further than radius chunks from the center
+    public void prune(int centerX, int centerZ, int radius) {
+        prune(centerX - radius, centerZ - radius, centerX + radius, centerZ + radius);
+    }
+
+    public void shutdown() {
+        this.pool.shutdownNow();
+        synchronized (this) {
+            this.entries.clear();
+        }
+    }
+
+    public synchronized int getNumberOfEntries() {
+        return this.entries.size();
+    }
+
+    public long getTerrainGenerated() {
+        return terrainGenerated.get();
+    }
+
+    public long getTerrainTime() {
+        return terrainTime.get();
+    }
+
+    public long getChunksDecorated() {
+        return chunksDecorated.get();
+    }
+
+    public long getDecorationTime() {
+        return decorationTime.get();
+    }
+
+    public long getFinalizationTime() {
+        return finalizationTime.get();
+    }
+
+    private static String averageMs(long nanos, long count) {
+        if (count == 0) {
+            return String.format("%.4f", 0f);
+        }
+        return String.format("%.4f", (nanos / 1E6f) / count);
+    }
+
+    public void print(PrintStream out) {
+        long terrain = this.terrainGenerated.get();
+        long decorated = this.chunksDecorated.get();
+        out.println("===Generation Pipeline===");
+        try {
+            synchronized (this) {
+                out.println("Entries - " + this.entries.size() + ", Pruned - " + this.pruned);
+            }
+            out.println("Terrain - " + terrain + " chunk(s) (average: " + averageMs(this.terrainTime.get(), terrain) + "ms)");
+            out.println("Decoration - " + decorated + " chunk(s) (average: " + averageMs(this.decorationTime.get(), decorated) + "ms)");
+            out.println("Finalization - " + decorated + " chunk(s) (average: " + averageMs(this.finalizationTime.get(), decorated) + "ms)");
+            if (decorated != 0) {
+                out.println("Terrain per decorated chunk - " + String.format("%.4f", ((float) terrain) / decorated));
+            }
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+}
@@ -30,18 +30,15 @@ import cientistavuador.ciencraftreal.block.Block;
 import cientistavuador.ciencraftreal.block.Blocks;
 import cientistavuador.ciencraftreal.camera.Camera;
 import cientistavuador.ciencraftreal.chunk.Chunk;
-import cientistavuador.ciencraftreal.chunk.generation.ChunkGenerator;
 import cientistavuador.ciencraftreal.chunk.generation.ChunkGeneratorFactory;
 import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayers;
 import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayersPipeline;
 import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayersShadowPipeline;
 import cientistavuador.ciencraftreal.chunk.render.layer.ShadowProfile;
+import cientistavuador.ciencraftreal.world.region.RegionStorage;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import org.joml.Vector3f;
 
 /**
  *
@@ -49,79 +46,82 @@ import java.util.concurrent.Future;
  */
 public class WorldCamera {
 
-    public static final int VIEW_DISTANCE = 6;
-    public static final int VIEW_DISTANCE_SIZE = (VIEW_DISTANCE * 2) + 1;
-    public static final int VIEW_DISTANCE_NUMBER_OF_CHUNKS = VIEW_DISTANCE_SIZE * VIEW_DISTANCE_SIZE;
+    public static final int MIN_VIEW_DISTANCE = 2;
+    public static final int MAX_VIEW_DISTANCE = 64;
+    public static final int DEFAULT_VIEW_DISTANCE = 6;
+    public static final double OUT_OF_FRUSTUM_PENALTY = MAX_VIEW_DISTANCE * 2.0;
+    public static final float RERANK_ANGLE_COSINE = 0.98f;
 
-    private static class DistancedChunk {
+    private static final int[][] loadOrders = new int[MAX_VIEW_DISTANCE + 1][];
 
-        private final int index;
-        private final int chunkX;
-        private final int chunkZ;
-        private final float distance;
-
-        public DistancedChunk(int index, int chunkX, int chunkZ) {
-            this.index = index;
-            this.chunkX = chunkX;
-            this.chunkZ = chunkZ;
-
-            this.distance = (float) Math.sqrt((chunkX * chunkX) + (chunkZ * chunkZ));
-        }
-
-        public int getIndex() {
-            return index;
-        }
-
-        public int getChunkX() {
-            return chunkX;
-        }
-
-        public int getChunkZ() {
-            return chunkZ;
+    //chunk offsets (x, z pairs) around the camera sorted by distance, ties sorted by angle, forming a spiral
+    private static int[] loadOrder(int viewDistance) {
+        int[] order = loadOrders[viewDistance];
+        if (order != null) {
+            return order;
         }
 
-        public float getDistance() {
-            return distance;
-        }
-    }
-
-    private static final DistancedChunk[] distancedMatrix;
-
-    static {
-        List<DistancedChunk> list = new ArrayList<>();
-        for (int i = 0; i < VIEW_DISTANCE_NUMBER_OF_CHUNKS; i++) {
-            int x = (i % VIEW_DISTANCE_SIZE) - VIEW_DISTANCE;
-            int z = -((i / VIEW_DISTANCE_SIZE) - VIEW_DISTANCE);
-            list.add(new DistancedChunk(i, x, z));
+        int size = (viewDistance * 2) + 1;
+        List<int[]> list = new ArrayList<>(size * size);
+        for (int z = -viewDistance; z <= viewDistance; z++) {
+            for (int x = -viewDistance; x <= viewDistance; x++) {
+                list.add(new int[]{x, z, (x * x) + (z * z)});
+            }
         }
         list.sort((o1, o2) -> {
-            if (o1.getDistance() > o2.getDistance()) {
-                return 1;
-            }
-            if (o1.getDistance() < o2.getDistance()) {
-                return -1;
+            int compare = Integer.compare(o1[2], o2[2]);
+            if (compare != 0) {
+                return compare;
             }
-            return 0;
+            return Double.compare(Math.atan2(o1[1], o1[0]), Math.atan2(o2[1], o2[0]));
         });
-        distancedMatrix = list.toArray(DistancedChunk[]::new);
+
+        order = new int[list.size() * 2];
+        for (int i = 0; i < list.size(); i++) {
+            order[(i * 2) + 0] = list.get(i)[0];
+            order[(i * 2) + 1] = list.get(i)[1];
+        }
+        loadOrders[viewDistance] = order;
+        return order;
     }
 
-    private final Object[] map = new Object[VIEW_DISTANCE_NUMBER_OF_CHUNKS];
+    private ChunkGrid grid = new ChunkGrid(DEFAULT_VIEW_DISTANCE, 0, 0);
+    private final ChunkMap<ChunkScheduler.Job> pending = new ChunkMap<>();
+    private final ChunkScheduler scheduler;
+    private int rankedChunkX = 0;
+    private int rankedChunkZ = 0;
+    private final Vector3f rankedFront = new Vector3f();
 
     private final long seed;
     private final Camera camera;
-    private int oldChunkX = 0;
-    private int oldChunkZ = 0;
+    private int viewDistance = DEFAULT_VIEW_DISTANCE;
     private int chunkX = 0;
     private int chunkZ = 0;
     private final ChunkGeneratorFactory chunkGeneratorFactory;
+    private final RegionStorage storage;
     private final WorldSky sky = new WorldSky();
+    private final WorldStatistics statistics = new WorldStatistics();
+    private final ChunkCache cache = new ChunkCache();
+    private final GenerationPipeline pipeline;
 
-    public WorldCamera(Camera camera, long seed, ChunkGeneratorFactory chunkGeneratorFactory) {
+    //a world without a camera is headless, it never streams chunks around a camera so it has no scheduler,
+    //numberOfThreads is the size of the generation pipeline
+    public WorldCamera(Camera camera, long seed, ChunkGeneratorFactory chunkGeneratorFactory, RegionStorage storage, int numberOfThreads) {
         this.camera = camera;
         this.seed = seed;
 
         this.chunkGeneratorFactory = chunkGeneratorFactory;
+        this.storage = storage;
+        this.scheduler = (camera == null ? null : new ChunkScheduler());
+        this.pipeline = new GenerationPipeline(this, chunkGeneratorFactory, numberOfThreads);
+    }
+
+    public WorldCamera(Camera camera, long seed, ChunkGeneratorFactory chunkGeneratorFactory, RegionStorage storage) {
+        this(camera, seed, chunkGeneratorFactory, storage, Runtime.getRuntime().availableProcessors());
+    }
+
+    public WorldCamera(Camera camera, long seed, ChunkGeneratorFactory chunkGeneratorFactory) {
+        this(camera, seed, chunkGeneratorFactory, null);
     }
 
     public ChunkGeneratorFactory getChunkGeneratorFactory() {
@@ -132,190 +132,293 @@ public class WorldCamera {
         return sky;
     }
 
-    private void updatePosition() {
-        int camChunkX = (int) Math.floor(camera.getPosition().x() / Chunk.CHUNK_SIZE);
-        int camChunkZ = (int) Math.ceil(camera.getPosition().z() / Chunk.CHUNK_SIZE);
-
-        if (this.chunkX != camChunkX || this.chunkZ != camChunkZ) {
-            this.oldChunkX = this.chunkX;
-            this.oldChunkZ = this.chunkZ;
-            this.chunkX = camChunkX;
-            this.chunkZ = camChunkZ;
+    public RegionStorage getStorage() {
+        return storage;
+    }
+
+    public WorldStatistics getStatistics() {
+        return statistics;
+    }
+
+    public ChunkCache getCache() {
+        return cache;
+    }
+
+    public ChunkScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public GenerationPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public int getViewDistance() {
+        return viewDistance;
+    }
+
+    public void setViewDistance(int viewDistance) {
+        if (viewDistance < MIN_VIEW_DISTANCE || viewDistance > MAX_VIEW_DISTANCE) {
+            throw new IllegalArgumentException("View distance must be between " + MIN_VIEW_DISTANCE + " and " + MAX_VIEW_DISTANCE + ", got " + viewDistance);
         }
+        this.viewDistance = viewDistance;
     }
 
-    private void moveAreas() {
-        int translationX = this.oldChunkX - this.chunkX;
-        int translationZ = this.oldChunkZ - this.chunkZ;
-
-        if (Math.abs(translationX) > VIEW_DISTANCE_SIZE || Math.abs(translationZ) > VIEW_DISTANCE_SIZE) {
-            for (int i = 0; i < this.map.length; i++) {
-                Object m = this.map[i];
-                if (m instanceof Chunk e) {
-                    e.getLayers().delete(false);
-                }
+    private void updatePosition() {
+        this.chunkX = (int) Math.floor(camera.getPosition().x() / Chunk.CHUNK_SIZE);
+        this.chunkZ = (int) Math.ceil(camera.getPosition().z() / Chunk.CHUNK_SIZE);
+    }
+
+    private void saveIfModified(Chunk chunk) {
+        if (this.storage != null && chunk.isModified()) {
+            //edited back to what the generator produces, nothing to keep
+            if (chunk.matchesGenerated()) {
+                this.storage.remove(chunk);
+                this.statistics.chunkReverted();
+            } else {
+                this.statistics.chunkSaved(this.storage.save(chunk));
             }
+            chunk.setModified(false);
+        }
+    }
 
-            Arrays.fill(this.map, null);
-            return;
+    private static final int[] NEIGHBORS = {
+        1, 0, Chunk.NEIGHBOR_POSITIVE_X, Chunk.NEIGHBOR_NEGATIVE_X,
+        -1, 0, Chunk.NEIGHBOR_NEGATIVE_X, Chunk.NEIGHBOR_POSITIVE_X,
+        0, 1, Chunk.NEIGHBOR_POSITIVE_Z, Chunk.NEIGHBOR_NEGATIVE_Z,
+        0, -1, Chunk.NEIGHBOR_NEGATIVE_Z, Chunk.NEIGHBOR_POSITIVE_Z
+    };
+
+    private void link(Chunk chunk, boolean present) {
+        for (int i = 0; i < NEIGHBORS.length; i += 4) {
+            Chunk neighbor = getChunk(chunk.getChunkX() + NEIGHBORS[i + 0], chunk.getChunkZ() + NEIGHBORS[i + 1]);
+            if (neighbor == null) {
+                continue;
+            }
+            chunk.setNeighbor(NEIGHBORS[i + 2], present);
+            neighbor.setNeighbor(NEIGHBORS[i + 3], present);
+            if (present) {
+                neighbor.getLayers().delete(true);
+            }
         }
+    }
 
-        if (translationX == 0 && translationZ == 0) {
-            return;
+    public boolean isNeighborhoodComplete(Chunk chunk) {
+        if (chunk.hasAllNeighbors()) {
+            return true;
+        }
+        for (int i = 0; i < NEIGHBORS.length; i += 4) {
+            if (chunk.hasNeighbor(NEIGHBORS[i + 2])) {
+                continue;
+            }
+            if (this.grid.contains(chunk.getChunkX() + NEIGHBORS[i + 0], chunk.getChunkZ() + NEIGHBORS[i + 1])) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        Object[] copy = this.map.clone();
-        Arrays.fill(this.map, null);
+    private void evict(Chunk chunk) {
+        link(chunk, false);
+        saveIfModified(chunk);
+        this.cache.put(chunk);
+        chunk.getLayers().delete(false);
+    }
 
-        for (int i = 0; i < copy.length; i++) {
-            Object e = copy[i];
+    private Chunk loadOrGenerate(int x, int z) {
+        Chunk chunk = new Chunk(this, x, z);
 
-            if (e == null) {
-                continue;
+        long time = System.nanoTime();
+        if (this.cache.load(chunk)) {
+            this.statistics.chunkLoadedFromCache(System.nanoTime() - time);
+            return chunk;
+        }
+        if (this.storage != null && this.storage.load(chunk)) {
+            this.statistics.chunkLoaded(System.nanoTime() - time);
+            return chunk;
+        }
+
+        Chunk generated = this.pipeline.generate(x, z);
+        this.statistics.chunkGenerated(System.nanoTime() - time);
+        return generated;
+    }
+
+    private void moveAreas() {
+        if (this.grid.getRadius() != this.viewDistance) {
+            ChunkGrid old = this.grid;
+            this.grid = new ChunkGrid(this.viewDistance, this.chunkX, this.chunkZ);
+            for (int i = 0; i < old.length(); i++) {
+                Chunk c = old.chunkAt(i);
+                if (c != null && this.grid.contains(c.getChunkX(), c.getChunkZ())) {
+                    this.grid.set(c);
+                }
+            }
+            for (int i = 0; i < old.length(); i++) {
+                Chunk c = old.chunkAt(i);
+                if (c != null && !this.grid.contains(c.getChunkX(), c.getChunkZ())) {
+                    evict(c);
+                }
             }
+        } else if (this.grid.getCenterX() != this.chunkX || this.grid.getCenterZ() != this.chunkZ) {
+            this.grid.moveCenter(this.chunkX, this.chunkZ, this::evict);
+        } else {
+            return;
+        }
 
-            //todo: fix future chunks being ignored when the camera moves.
-            if (e instanceof Chunk m) {
-                int newCamRelativeX = m.getChunkX() - this.chunkX;
-                int newCamRelativeZ = m.getChunkZ() - this.chunkZ;
+        for (long key : this.pending.keys()) {
+            if (!this.grid.contains(ChunkMap.keyX(key), ChunkMap.keyZ(key))) {
+                this.scheduler.cancel(this.pending.remove(key));
+            }
+        }
 
-                boolean outOfBoundsX = (newCamRelativeX > VIEW_DISTANCE) || (newCamRelativeX < -VIEW_DISTANCE);
-                boolean outOfBoundsZ = (newCamRelativeZ > VIEW_DISTANCE) || (newCamRelativeZ < -VIEW_DISTANCE);
+        //chunks at the edge of the grid are decorated with their outer neighbors terrain
+        this.pipeline.prune(this.chunkX, this.chunkZ, this.grid.getRadius() + 1);
+    }
 
-                if (outOfBoundsX || outOfBoundsZ) {
-                    m.getLayers().delete(false);
-                } else {
-                    this.map[(newCamRelativeX + VIEW_DISTANCE) + ((-newCamRelativeZ + VIEW_DISTANCE) * VIEW_DISTANCE_SIZE)] = m;
-                }
+    private double rank(int x, int z) {
+        int xx = x - this.chunkX;
+        int zz = z - this.chunkZ;
+        double distance = Math.sqrt((xx * xx) + (zz * zz));
+        if (distance > 1.5) {
+            double xMin = x * Chunk.CHUNK_SIZE;
+            double zMin = z * Chunk.CHUNK_SIZE;
+            boolean visible = this.camera.getProjectionView().testAab(
+                    xMin, 0, zMin - Chunk.CHUNK_SIZE,
+                    xMin + Chunk.CHUNK_SIZE, Chunk.CHUNK_HEIGHT, zMin
+            );
+            if (!visible) {
+                distance += OUT_OF_FRUSTUM_PENALTY;
             }
         }
+        return distance;
     }
 
-    private void finishUpdatePosition() {
-        this.oldChunkX = this.chunkX;
-        this.oldChunkZ = this.chunkZ;
+    private void rerankIfNeeded() {
+        if (this.rankedChunkX == this.chunkX
+                && this.rankedChunkZ == this.chunkZ
+                && this.rankedFront.dot(this.camera.getFront()) >= RERANK_ANGLE_COSINE) {
+            return;
+        }
+        this.rankedChunkX = this.chunkX;
+        this.rankedChunkZ = this.chunkZ;
+        this.rankedFront.set(this.camera.getFront());
+        this.scheduler.rerank(this::rank);
     }
 
     private void updateChunks() {
+        int[] order = loadOrder(this.viewDistance);
+
         boolean nineLoaded = true;
-        for (int i = 0; i < distancedMatrix.length; i++) {
+        for (int i = 0; i < (order.length / 2); i++) {
             if (i > 8 && !nineLoaded) {
                 break;
             }
 
-            DistancedChunk distanced = distancedMatrix[i];
+            int x = this.chunkX + order[(i * 2) + 0];
+            int z = this.chunkZ + order[(i * 2) + 1];
 
-            int x = distanced.getChunkX();
-            int z = distanced.getChunkZ();
+            if (this.grid.get(x, z) != null) {
+                continue;
+            }
 
-            Object m = this.map[distanced.getIndex()];
-            if (m == null) {
+            ChunkScheduler.Job job = this.pending.get(x, z);
+            if (job == null) {
                 if (i <= 8) {
                     nineLoaded = false;
                 }
-                this.map[distanced.getIndex()] = CompletableFuture.supplyAsync(() -> {
-                    Chunk chunk = new Chunk(this, this.chunkX + x, this.chunkZ + z);
-                    ChunkGenerator generator = this.chunkGeneratorFactory.create(chunk);
-                    generator.generate();
-                    return chunk;
-                });
-            } else if (m instanceof Future<?> e) {
-                if (!e.isDone() && i > 8) {
-                    continue;
-                }
-                try {
-                    Object result = e.get();
-                    if (result instanceof Chunk f) {
-                        int chunkX = f.getChunkX();
-                        int chunkZ = f.getChunkZ();
-
-                        deleteLayersIfPossible(chunkX + 1, chunkZ);
-                        deleteLayersIfPossible(chunkX - 1, chunkZ);
-                        deleteLayersIfPossible(chunkX, chunkZ + 1);
-                        deleteLayersIfPossible(chunkX, chunkZ - 1);
-                        this.map[distanced.getIndex()] = f;
-                    } else {
-                        throw new RuntimeException("what");
-                    }
-                } catch (InterruptedException | ExecutionException ex) {
-                    throw new RuntimeException(ex);
-                }
+                this.pending.put(x, z, this.scheduler.submit(x, z, rank(x, z), () -> loadOrGenerate(x, z)));
+                continue;
+            }
+
+            if (!job.isDone() && i > 8) {
+                continue;
             }
+
+            Chunk chunk = job.get();
+            this.pending.remove(x, z);
+            this.statistics.chunkEnteredGrid(System.nanoTime() - job.getSubmitTime());
+            chunk.setSubmitTime(job.getSubmitTime());
+
+            this.grid.set(chunk);
+            link(chunk, true);
         }
     }
 
-    private void deleteLayersIfPossible(int chunkX, int chunkZ) {
-        Chunk c = getChunk(chunkX, chunkZ);
-        if (c != null) {
-            c.getLayers().delete(true);
+    public void save() {
+        for (int i = 0; i < this.grid.length(); i++) {
+            Chunk c = this.grid.chunkAt(i);
+            if (c != null) {
+                saveIfModified(c);
+            }
+        }
+        if (this.storage != null) {
+            this.storage.flush();
+        }
+    }
+
+    public void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+        }
+        this.pipeline.shutdown();
+        this.pending.clear();
+        save();
+        if (this.storage != null) {
+            this.storage.close();
         }
     }
 
     public void update() {
         updatePosition();
         moveAreas();
-        finishUpdatePosition();
+        rerankIfNeeded();
         updateChunks();
     }
 
     public Chunk getChunk(int chunkX, int chunkZ) {
-        return getLocalChunk(chunkX - this.chunkX, chunkZ - this.chunkZ);
+        return this.grid.get(chunkX, chunkZ);
     }
 
     public Chunk getLocalChunk(int chunkX, int chunkZ) {
-        chunkX = chunkX + VIEW_DISTANCE;
-        chunkZ = -chunkZ + VIEW_DISTANCE;
-
-        int index = chunkX + (chunkZ * VIEW_DISTANCE_SIZE);
-        if (index < 0 || index >= this.map.length) {
-            return null;
-        }
-        Object m = this.map[index];
-        if (m instanceof Chunk e) {
-            return e;
-        }
-        return null;
+        return getChunk(chunkX + this.chunkX, chunkZ + this.chunkZ);
     }
 
     public int length() {
-        return this.map.length;
+        return this.grid.length();
     }
 
     public Chunk chunkAtIndex(int i) {
-        Object m = this.map[i];
-        if (m instanceof Chunk e) {
-            return e;
-        }
-        return null;
+        return this.grid.chunkAt(i);
     }
 
     private void deleteLayer(int chunkX, int chunkZ, int y) {
-        Chunk c = getLocalChunk(chunkX, chunkZ);
+        Chunk c = getChunk(chunkX, chunkZ);
         if (c != null) {
             ChunkLayers layers = c.getLayers();
 
             layers.layerAtY(y).delete(true);
-            layers.layerAtY(y + 1).delete(true);
-            layers.layerAtY(y - 1).delete(true);
+            if (y < (Chunk.CHUNK_HEIGHT - 1)) {
+                layers.layerAtY(y + 1).delete(true);
+            }
+            if (y > 0) {
+                layers.layerAtY(y - 1).delete(true);
+            }
         }
     }
 
+    public WorldEdit edit() {
+        return new WorldEdit(this);
+    }
+
     public void setWorldBlock(int x, int y, int z, Block block) {
         if (y >= Chunk.CHUNK_HEIGHT || y < 0) {
             return;
         }
 
-        int cX = (int) Math.floor((double) x / Chunk.CHUNK_SIZE);
-        int cZ = (int) Math.ceil((double) z / Chunk.CHUNK_SIZE);
-
-        int camChunkX = cX - this.chunkX;
-        int camChunkZ = cZ - this.chunkZ;
+        int cX = Math.floorDiv(x, Chunk.CHUNK_SIZE);
+        int cZ = -Math.floorDiv(-z, Chunk.CHUNK_SIZE);
 
-        if (camChunkX < -VIEW_DISTANCE || camChunkX > VIEW_DISTANCE) {
-            return;
-        }
-
-        if (camChunkZ < -VIEW_DISTANCE || camChunkZ > VIEW_DISTANCE) {
+        Chunk c = getChunk(cX, cZ);
+        if (c == null) {
             return;
         }
 
@@ -323,26 +426,23 @@ public class WorldCamera {
         int chunkBlockZ = z - (cZ * Chunk.CHUNK_SIZE);
 
         if (chunkBlockX == 0) {
-            deleteLayer(camChunkX - 1, camChunkZ, y);
+            deleteLayer(cX - 1, cZ, y);
         } else if (chunkBlockX == Chunk.CHUNK_SIZE - 1) {
-            deleteLayer(camChunkX + 1, camChunkZ, y);
+            deleteLayer(cX + 1, cZ, y);
         }
 
         if (chunkBlockZ == 0) {
-            deleteLayer(camChunkX, camChunkZ + 1, y);
+            deleteLayer(cX, cZ + 1, y);
         } else if (chunkBlockZ == -(Chunk.CHUNK_SIZE - 1)) {
-            deleteLayer(camChunkX, camChunkZ - 1, y);
+            deleteLayer(cX, cZ - 1, y);
         }
 
-        Chunk c = getLocalChunk(camChunkX, camChunkZ);
-        if (c != null) {
-            c.setBlock(
-                    chunkBlockX,
-                    y,
-                    chunkBlockZ,
-                    block
-            );
-        }
+        c.setBlock(
+                chunkBlockX,
+                y,
+                chunkBlockZ,
+                block
+        );
     }
 
     public Block getWorldBlock(int x, int y, int z) {
@@ -350,21 +450,10 @@ public class WorldCamera {
             return Blocks.AIR;
         }
 
-        int cX = (int) Math.floor((double) x / Chunk.CHUNK_SIZE);
-        int cZ = (int) Math.ceil((double) z / Chunk.CHUNK_SIZE);
-
-        int camChunkX = cX - this.chunkX;
-        int camChunkZ = cZ - this.chunkZ;
-
-        if (camChunkX < -VIEW_DISTANCE || camChunkX > VIEW_DISTANCE) {
-            return Blocks.AIR;
-        }
-
-        if (camChunkZ < -VIEW_DISTANCE || camChunkZ > VIEW_DISTANCE) {
-            return Blocks.AIR;
-        }
+        int cX = Math.floorDiv(x, Chunk.CHUNK_SIZE);
+        int cZ = -Math.floorDiv(-z, Chunk.CHUNK_SIZE);
 
-        Chunk c = getLocalChunk(camChunkX, camChunkZ);
+        Chunk c = getChunk(cX, cZ);
         if (c != null) {
             return c.getBlock(
                     x - (cX * Chunk.CHUNK_SIZE),
@@ -0,0 +1,221 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import cientistavuador.ciencraftreal.block.Block;
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayer;
+import cientistavuador.ciencraftreal.chunk.render.layer.ChunkLayers;
+
+/**
+ * Applies many block changes to the world and invalidates every affected
+ * layer only once, when the edit is applied or closed.
+ *
+ * @author Cien
+ */
+public class WorldEdit implements AutoCloseable {
+
+    private static int chunkOfX(int x) {
+        return Math.floorDiv(x, Chunk.CHUNK_SIZE);
+    }
+
+    private static int chunkOfZ(int z) {
+        return -Math.floorDiv(-z, Chunk.CHUNK_SIZE);
+    }
+
+    private final WorldCamera world;
+    private final ChunkMap<int[]> dirtyLayers = new ChunkMap<>();
+    private int blocksChanged = 0;
+    private int layersInvalidated = 0;
+
+    public WorldEdit(WorldCamera world) {
+        this.world = world;
+    }
+
+    public WorldCamera getWorld() {
+        return world;
+    }
+
+    public int getBlocksChanged() {
+        return blocksChanged;
+    }
+
+    public int getLayersInvalidated() {
+        return layersInvalidated;
+    }
+
+    private void markDirty(int chunkX, int chunkZ, int minY, int maxY) {
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, Chunk.CHUNK_HEIGHT - 1);
+
+        int mask = 0;
+        for (int i = minY / ChunkLayer.HEIGHT; i <= maxY / ChunkLayer.HEIGHT; i++) {
+            mask |= (1 << i);
+        }
+
+        int[] layers = this.dirtyLayers.get(chunkX, chunkZ);
+        if (layers == null) {
+            layers = new int[1];
+            this.dirtyLayers.put(chunkX, chunkZ, layers);
+        }
+        layers[0] |= mask;
+    }
+
+    private void markDirty(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        for (int cZ = chunkOfZ(minZ - 1); cZ <= chunkOfZ(maxZ + 1); cZ++) {
+            for (int cX = chunkOfX(minX - 1); cX <= chunkOfX(maxX + 1); cX++) {
+                markDirty(cX, cZ, minY - 1, maxY + 1);
+            }
+        }
+    }
+
+    public boolean setBlock(int x, int y, int z, Block block) {
+        if (y >= Chunk.CHUNK_HEIGHT || y < 0) {
+            return false;
+        }
+
+        int cX = chunkOfX(x);
+        int cZ = chunkOfZ(z);
+
+        Chunk c = this.world.getChunk(cX, cZ);
+        if (c == null) {
+            return false;
+        }
+
+        if (!c.setBlockWithoutInvalidation(x - (cX * Chunk.CHUNK_SIZE), y, z - (cZ * Chunk.CHUNK_SIZE), block)) {
+            return false;
+        }
+
+        this.blocksChanged++;
+        markDirty(x, y, z, x, y, z);
+        return true;
+    }
+
+    public int setBlocks(int[] positions, Block block) {
+        int changed = 0;
+        for (int i = 0; i < positions.length; i += 3) {
+            if (setBlock(positions[i + 0], positions[i + 1], positions[i + 2], block)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private int fillImpl(int x0, int y0, int z0, int x1, int y1, int z1, boolean replace, Block from, Block to) {
+        int minX = Math.min(x0, x1);
+        int minY = Math.max(Math.min(y0, y1), 0);
+        int minZ = Math.min(z0, z1);
+        int maxX = Math.max(x0, x1);
+        int maxY = Math.min(Math.max(y0, y1), Chunk.CHUNK_HEIGHT - 1);
+        int maxZ = Math.max(z0, z1);
+
+        if (minY > maxY) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (int cZ = chunkOfZ(minZ); cZ <= chunkOfZ(maxZ); cZ++) {
+            for (int cX = chunkOfX(minX); cX <= chunkOfX(maxX); cX++) {
+                Chunk c = this.world.getChunk(cX, cZ);
+                if (c == null) {
+                    continue;
+                }
+
+                int startX = Math.max(minX - (cX * Chunk.CHUNK_SIZE), 0);
+                int endX = Math.min(maxX - (cX * Chunk.CHUNK_SIZE), Chunk.CHUNK_SIZE - 1);
+                int startZ = Math.min(maxZ - (cZ * Chunk.CHUNK_SIZE), 0);
+                int endZ = Math.max(minZ - (cZ * Chunk.CHUNK_SIZE), -(Chunk.CHUNK_SIZE - 1));
+
+                int chunkChanged = 0;
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = startZ; z >= endZ; z--) {
+                        for (int x = startX; x <= endX; x++) {
+                            if (replace && c.getBlock(x, y, z) != from) {
+                                continue;
+                            }
+                            if (c.setBlockWithoutInvalidation(x, y, z, to)) {
+                                chunkChanged++;
+                            }
+                        }
+                    }
+                }
+
+                if (chunkChanged != 0) {
+                    int worldX = cX * Chunk.CHUNK_SIZE;
+                    int worldZ = cZ * Chunk.CHUNK_SIZE;
+                    markDirty(
+                            worldX + startX, minY, worldZ + endZ,
+                            worldX + endX, maxY, worldZ + startZ
+                    );
+                    changed += chunkChanged;
+                }
+            }
+        }
+
+        this.blocksChanged += changed;
+        return changed;
+    }
+
+    public int fill(int x0, int y0, int z0, int x1, int y1, int z1, Block block) {
+        return fillImpl(x0, y0, z0, x1, y1, z1, false, null, block);
+    }
+
+    public int replace(int x0, int y0, int z0, int x1, int y1, int z1, Block from, Block to) {
+        return fillImpl(x0, y0, z0, x1, y1, z1, true, from, to);
+    }
+
+    public int apply() {
+        int invalidated = 0;
+        for (int i = 0; i < this.dirtyLayers.capacity(); i++) {
+            int[] mask = this.dirtyLayers.valueAt(i);
+            if (mask == null) {
+                continue;
+            }
+            long key = this.dirtyLayers.keyAt(i);
+            Chunk c = this.world.getChunk(ChunkMap.keyX(key), ChunkMap.keyZ(key));
+            if (c == null) {
+                continue;
+            }
+            ChunkLayers layers = c.getLayers();
+            for (int j = 0; j < layers.length(); j++) {
+                if ((mask[0] & (1 << j)) != 0) {
+                    layers.layerAt(j).delete(true);
+                    invalidated++;
+                }
+            }
+        }
+        this.dirtyLayers.clear();
+        this.layersInvalidated += invalidated;
+        return invalidated;
+    }
+
+    @Override
+    public void close() {
+        apply();
+    }
+
+}
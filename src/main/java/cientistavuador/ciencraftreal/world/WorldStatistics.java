@@ -0,0 +1,224 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @author Cien
+ */
+public class WorldStatistics {
+
+    private final AtomicLong chunksGenerated = new AtomicLong();
+    private final AtomicLong generationTime = new AtomicLong();
+    private final AtomicLong chunksLoaded = new AtomicLong();
+    private final AtomicLong loadingTime = new AtomicLong();
+    private final AtomicLong chunksLoadedFromCache = new AtomicLong();
+    private final AtomicLong cacheLoadingTime = new AtomicLong();
+    private final AtomicLong chunksSaved = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong chunksReverted = new AtomicLong();
+    private final AtomicLong chunksInGrid = new AtomicLong();
+    private final AtomicLong timeToGrid = new AtomicLong();
+    private final AtomicLong maxTimeToGrid = new AtomicLong();
+    private final AtomicLong chunksVisible = new AtomicLong();
+    private final AtomicLong timeToVisible = new AtomicLong();
+    private final AtomicLong maxTimeToVisible = new AtomicLong();
+    private final AtomicLong meshJobsSubmitted = new AtomicLong();
+    private final AtomicLong meshJobsAvoided = new AtomicLong();
+    private final AtomicLong staleMeshesDiscarded = new AtomicLong();
+
+    public WorldStatistics() {
+
+    }
+
+    public void chunkGenerated(long nanos) {
+        this.chunksGenerated.incrementAndGet();
+        this.generationTime.addAndGet(nanos);
+    }
+
+    public void chunkLoaded(long nanos) {
+        this.chunksLoaded.incrementAndGet();
+        this.loadingTime.addAndGet(nanos);
+    }
+
+    public void chunkLoadedFromCache(long nanos) {
+        this.chunksLoadedFromCache.incrementAndGet();
+        this.cacheLoadingTime.addAndGet(nanos);
+    }
+
+    public void chunkSaved(int bytes) {
+        this.chunksSaved.incrementAndGet();
+        this.bytesSaved.addAndGet(bytes);
+    }
+
+    public void chunkReverted() {
+        this.chunksReverted.incrementAndGet();
+    }
+
+    //from the submission of the load job to the chunk entering the grid
+    public void chunkEnteredGrid(long nanos) {
+        this.chunksInGrid.incrementAndGet();
+        this.timeToGrid.addAndGet(nanos);
+        this.maxTimeToGrid.accumulateAndGet(nanos, Math::max);
+    }
+
+    //from the submission of the load job to the first upload of a layer with faces
+    public void chunkVisible(long nanos) {
+        this.chunksVisible.incrementAndGet();
+        this.timeToVisible.addAndGet(nanos);
+        this.maxTimeToVisible.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void meshJobSubmitted() {
+        this.meshJobsSubmitted.incrementAndGet();
+    }
+
+    public void meshJobAvoided() {
+        this.meshJobsAvoided.incrementAndGet();
+    }
+
+    public void staleMeshDiscarded() {
+        this.staleMeshesDiscarded.incrementAndGet();
+    }
+
+    public long getChunksGenerated() {
+        return chunksGenerated.get();
+    }
+
+    public long getGenerationTime() {
+        return generationTime.get();
+    }
+
+    public long getChunksLoaded() {
+        return chunksLoaded.get();
+    }
+
+    public long getLoadingTime() {
+        return loadingTime.get();
+    }
+
+    public long getChunksLoadedFromCache() {
+        return chunksLoadedFromCache.get();
+    }
+
+    public long getCacheLoadingTime() {
+        return cacheLoadingTime.get();
+    }
+
+    public long getChunksSaved() {
+        return chunksSaved.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public long getChunksReverted() {
+        return chunksReverted.get();
+    }
+
+    public long getChunksInGrid() {
+        return chunksInGrid.get();
+    }
+
+    public long getTimeToGrid() {
+        return timeToGrid.get();
+    }
+
+    public long getMaxTimeToGrid() {
+        return maxTimeToGrid.get();
+    }
+
+    public long getChunksVisible() {
+        return chunksVisible.get();
+    }
+
+    public long getTimeToVisible() {
+        return timeToVisible.get();
+    }
+
+    public long getMaxTimeToVisible() {
+        return maxTimeToVisible.get();
+    }
+
+    public long getMeshJobsSubmitted() {
+        return meshJobsSubmitted.get();
+    }
+
+    public long getMeshJobsAvoided() {
+        return meshJobsAvoided.get();
+    }
+
+    public long getStaleMeshesDiscarded() {
+        return staleMeshesDiscarded.get();
+    }
+
+    //each mesh job is a single pass over the layer
+    public float getMeshPassesPerChunk() {
+        long chunks = getChunksInGrid();
+        if (chunks == 0) {
+            return 0f;
+        }
+        return getMeshJobsSubmitted() / (float) chunks;
+    }
+
+    private static String format(float f) {
+        return String.format("%.4f", f);
+    }
+
+    private static float averageMs(long nanos, long count) {
+        if (count == 0) {
+            return 0f;
+        }
+        return (nanos / (float) count) / 1E6f;
+    }
+
+    public void print(PrintStream out) {
+        out.println("===World Statistics===");
+        try {
+            out.println("Generated - " + getChunksGenerated() + " chunk(s) (average: " + format(averageMs(getGenerationTime(), getChunksGenerated())) + "ms)");
+            out.println("Loaded - " + getChunksLoaded() + " chunk(s) (average: " + format(averageMs(getLoadingTime(), getChunksLoaded())) + "ms)");
+            out.println("Loaded from cache - " + getChunksLoadedFromCache() + " chunk(s) (average: " + format(averageMs(getCacheLoadingTime(), getChunksLoadedFromCache())) + "ms)");
+            out.println("Saved - " + getChunksSaved() + " chunk(s), " + getBytesSaved() + " bytes");
+            out.println("Reverted to generated - " + getChunksReverted() + " chunk(s)");
+            out.println("Time to load - average: " + format(averageMs(getTimeToGrid(), getChunksInGrid())) + "ms, max: " + format(getMaxTimeToGrid() / 1E6f) + "ms");
+            out.println("Time to visible - average: " + format(averageMs(getTimeToVisible(), getChunksVisible())) + "ms, max: " + format(getMaxTimeToVisible() / 1E6f) + "ms");
+            out.println("Mesh jobs - " + getMeshJobsSubmitted() + " submitted, " + getMeshJobsAvoided() + " avoided, " + getStaleMeshesDiscarded() + " stale discarded");
+            out.println("VerticesCreator.generateStreams calls per chunk loaded - " + format(getMeshPassesPerChunk()));
+        } finally {
+            out.println("=======");
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world.region;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file holding up to 32x32 chunks, split into 4 KiB sectors.
+ * The first two sectors are the allocation table, one (sector offset, length
+ * in bytes) pair of ints per chunk, offset 0 means the chunk is not stored.
+ *
+ * @author Cien
+ */
+public class RegionFile implements AutoCloseable {
+
+    public static final int SIZE = 32;
+    public static final int NUMBER_OF_CHUNKS = SIZE * SIZE;
+    public static final int SECTOR_SIZE = 4096;
+    public static final int HEADER_SECTORS = (NUMBER_OF_CHUNKS * 2 * Integer.BYTES) / SECTOR_SIZE;
+    public static final int GROWTH_SECTORS = 64;
+
+    private static int sectorsFor(int length) {
+        return (length + (SECTOR_SIZE - 1)) / SECTOR_SIZE;
+    }
+
+    private static int indexOf(int localX, int localZ) {
+        if (localX < 0 || localX >= SIZE || localZ < 0 || localZ >= SIZE) {
+            throw new IndexOutOfBoundsException("Local position out of bounds: " + localX + ", " + localZ);
+        }
+        return localX + (localZ * SIZE);
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] offsets = new int[NUMBER_OF_CHUNKS];
+    private final int[] lengths = new int[NUMBER_OF_CHUNKS];
+    private final BitSet usedSectors = new BitSet();
+    private MappedByteBuffer buffer;
+    private int mappedSectors;
+
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        int fileSectors = (int) (this.channel.size() / SECTOR_SIZE);
+        map(Math.max(fileSectors, HEADER_SECTORS));
+
+        this.usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < NUMBER_OF_CHUNKS; i++) {
+            int offset = this.buffer.getInt(i * 2 * Integer.BYTES);
+            int length = this.buffer.getInt((i * 2 * Integer.BYTES) + Integer.BYTES);
+            if (offset < HEADER_SECTORS || length <= 0 || (offset + sectorsFor(length)) > this.mappedSectors) {
+                continue;
+            }
+            this.offsets[i] = offset;
+            this.lengths[i] = length;
+            this.usedSectors.set(offset, offset + sectorsFor(length));
+        }
+    }
+
+    private void map(int sectors) throws IOException {
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, ((long) sectors) * SECTOR_SIZE);
+        this.mappedSectors = sectors;
+    }
+
+    private void ensureCapacity(int sectors) throws IOException {
+        if (sectors <= this.mappedSectors) {
+            return;
+        }
+        this.buffer.force();
+        map(Math.max(sectors, this.mappedSectors + GROWTH_SECTORS));
+    }
+
+    private int allocate(int sectors) {
+        int start = this.usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int nextUsed = this.usedSectors.nextSetBit(start);
+            if (nextUsed == -1 || (nextUsed - start) >= sectors) {
+                return start;
+            }
+            start = this.usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    private void writeHeader(int index) {
+        this.buffer.putInt(index * 2 * Integer.BYTES, this.offsets[index]);
+        this.buffer.putInt((index * 2 * Integer.BYTES) + Integer.BYTES, this.lengths[index]);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized boolean has(int localX, int localZ) {
+        return this.offsets[indexOf(localX, localZ)] != 0;
+    }
+
+    public synchronized ByteBuffer read(int localX, int localZ) {
+        int index = indexOf(localX, localZ);
+        int offset = this.offsets[index];
+        if (offset == 0) {
+            return null;
+        }
+        byte[] data = new byte[this.lengths[index]];
+        this.buffer.get(offset * SECTOR_SIZE, data);
+        return ByteBuffer.wrap(data);
+    }
+
+    public synchronized void write(int localX, int localZ, ByteBuffer data) throws IOException {
+        int index = indexOf(localX, localZ);
+        int length = data.remaining();
+        int sectors = sectorsFor(length);
+
+        int oldOffset = this.offsets[index];
+        int oldSectors = sectorsFor(this.lengths[index]);
+
+        int offset;
+        if (oldOffset != 0 && sectors <= oldSectors) {
+            offset = oldOffset;
+            this.usedSectors.clear(oldOffset + sectors, oldOffset + oldSectors);
+        } else {
+            if (oldOffset != 0) {
+                this.usedSectors.clear(oldOffset, oldOffset + oldSectors);
+            }
+            offset = allocate(sectors);
+        }
+
+        ensureCapacity(offset + sectors);
+        this.buffer.put(offset * SECTOR_SIZE, data, data.position(), length);
+        data.position(data.position() + length);
+        this.usedSectors.set(offset, offset + sectors);
+
+        this.offsets[index] = offset;
+        this.lengths[index] = length;
+        writeHeader(index);
+    }
+
+    public synchronized void remove(int localX, int localZ) {
+        int index = indexOf(localX, localZ);
+        int offset = this.offsets[index];
+        if (offset == 0) {
+            return;
+        }
+        this.usedSectors.clear(offset, offset + sectorsFor(this.lengths[index]));
+        this.offsets[index] = 0;
+        this.lengths[index] = 0;
+        writeHeader(index);
+    }
+
+    public synchronized void flush() {
+        this.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.buffer.force();
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.world.region;
+
+import cientistavuador.ciencraftreal.chunk.Chunk;
+import cientistavuador.ciencraftreal.world.ChunkMap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ *
+ * @author Cien
+ */
+public class RegionStorage implements AutoCloseable {
+
+    private final Path directory;
+    private final ChunkMap<RegionFile> regions = new ChunkMap<>();
+
+    public RegionStorage(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private synchronized RegionFile region(int chunkX, int chunkZ, boolean create) throws IOException {
+        int regionX = Math.floorDiv(chunkX, RegionFile.SIZE);
+        int regionZ = Math.floorDiv(chunkZ, RegionFile.SIZE);
+
+        RegionFile region = this.regions.get(regionX, regionZ);
+        if (region != null) {
+            return region;
+        }
+
+        Path path = this.directory.resolve("r." + regionX + "." + regionZ + ".region");
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        Files.createDirectories(this.directory);
+        region = new RegionFile(path);
+        this.regions.put(regionX, regionZ, region);
+        return region;
+    }
+
+    public boolean load(Chunk chunk) {
+        try {
+            RegionFile region = region(chunk.getChunkX(), chunk.getChunkZ(), false);
+            if (region == null) {
+                return false;
+            }
+            ByteBuffer data = region.read(
+                    Math.floorMod(chunk.getChunkX(), RegionFile.SIZE),
+                    Math.floorMod(chunk.getChunkZ(), RegionFile.SIZE)
+            );
+            if (data == null) {
+                return false;
+            }
+            chunk.read(data);
+            return true;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public int save(Chunk chunk) {
+        ByteBuffer data = ByteBuffer.allocate(chunk.getSerializedSize());
+        chunk.write(data);
+        data.flip();
+        int length = data.remaining();
+        try {
+            region(chunk.getChunkX(), chunk.getChunkZ(), true).write(
+                    Math.floorMod(chunk.getChunkX(), RegionFile.SIZE),
+                    Math.floorMod(chunk.getChunkZ(), RegionFile.SIZE),
+                    data
+            );
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return length;
+    }
+
+    //drops the saved data of the chunk, so it is generated again next time
+    public void remove(Chunk chunk) {
+        try {
+            RegionFile region = region(chunk.getChunkX(), chunk.getChunkZ(), false);
+            if (region == null) {
+                return;
+            }
+            region.remove(
+                    Math.floorMod(chunk.getChunkX(), RegionFile.SIZE),
+                    Math.floorMod(chunk.getChunkZ(), RegionFile.SIZE)
+            );
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public synchronized void flush() {
+        for (int i = 0; i < this.regions.capacity(); i++) {
+            RegionFile region = this.regions.valueAt(i);
+            if (region != null) {
+                region.flush();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            for (int i = 0; i < this.regions.capacity(); i++) {
+                RegionFile region = this.regions.valueAt(i);
+                if (region != null) {
+                    region.close();
+                }
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            this.regions.clear();
+        }
+    }
+
+}
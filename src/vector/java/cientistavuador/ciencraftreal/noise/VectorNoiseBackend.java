@@ -0,0 +1,562 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.ciencraftreal.noise;
+
+import static cientistavuador.ciencraftreal.noise.OpenSimplex2.*;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import static jdk.incubator.vector.VectorOperators.*;
+
+/**
+ * OpenSimplex2 grid evaluators on the Vector API, evaluating one vector of
+ * samples along x per step (8 on AVX-512, 4 on AVX2).
+ * <p>
+ * Every lane performs the same operations in the same order and precision as
+ * the scalar code (no fused multiply add), so the results are bit-exact with
+ * OpenSimplex2. Branches become masks; lanes that the scalar code would skip
+ * are left untouched by masked adds.
+ * <p>
+ * Only compiled with the vector maven profile and only loaded through
+ * NoiseBackends, when jdk.incubator.vector is present.
+ *
+ * @author Cien
+ */
+public class VectorNoiseBackend implements NoiseBackend {
+
+    //doubles for the coordinates and hashes, floats with the same lane count for the rest
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> L = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> F = VectorSpecies.of(float.class, VectorShape.forBitSize(D.vectorBitSize() / 2));
+    private static final VectorSpecies<Integer> I = VectorSpecies.of(int.class, VectorShape.forBitSize(D.vectorBitSize() / 2));
+    private static final int LANES = D.length();
+
+    private static final float UNSKEW_2D_F = (float) UNSKEW_2D;
+    private static final float UNSKEW_2D_PLUS_1 = (float) (UNSKEW_2D + 1);
+    private static final float UNSKEW_2D_DIAGONAL = (float) (1 + 2 * UNSKEW_2D);
+    private static final float A1_T = (float) (2 * (1 + 2 * UNSKEW_2D) * (1 / UNSKEW_2D + 2));
+    private static final float A1_CONSTANT = (float) (-2 * (1 + 2 * UNSKEW_2D) * (1 + 2 * UNSKEW_2D));
+
+    //the gradient tables split by component, the jdk 17 gather is only intrinsified with a zero array offset
+    private static final float[] GRADIENTS_2D_X = new float[N_GRADS_2D];
+    private static final float[] GRADIENTS_2D_Y = new float[N_GRADS_2D];
+    private static final float[] GRADIENTS_3D_X = new float[N_GRADS_3D];
+    private static final float[] GRADIENTS_3D_Y = new float[N_GRADS_3D];
+    private static final float[] GRADIENTS_3D_Z = new float[N_GRADS_3D];
+
+    static {
+        for (int i = 0; i < N_GRADS_2D; i++) {
+            GRADIENTS_2D_X[i] = GRADIENTS_2D[i * 2 + 0];
+            GRADIENTS_2D_Y[i] = GRADIENTS_2D[i * 2 + 1];
+        }
+        for (int i = 0; i < N_GRADS_3D; i++) {
+            GRADIENTS_3D_X[i] = GRADIENTS_3D[i * 4 + 0];
+            GRADIENTS_3D_Y[i] = GRADIENTS_3D[i * 4 + 1];
+            GRADIENTS_3D_Z[i] = GRADIENTS_3D[i * 4 + 2];
+        }
+    }
+
+    //1.5 * 2^52, adding it to a double below 2^51 rounds it to an integer kept in the low bits of the mantissa
+    private static final double MAGIC = 6755399441055744.0;
+    private static final long MAGIC_BITS = Double.doubleToRawLongBits(MAGIC);
+
+    public VectorNoiseBackend() {
+
+    }
+
+    public static int getLanes() {
+        return LANES;
+    }
+
+    @Override
+    public String getName() {
+        return "vector(" + LANES + ")";
+    }
+
+    /*
+     * Utility
+     */
+
+    //the jdk 17 vector intrinsics have no floating point to integer casts and no mask casts between lane sizes,
+    //so rounding is done in double with MAGIC and masks go through a double vector
+    private static FloatVector toFloat(DoubleVector v) {
+        return (FloatVector) v.convertShape(D2F, F, 0);
+    }
+
+    //x must be integer valued
+    private static LongVector toLong(DoubleVector x) {
+        return x.add(MAGIC).reinterpretAsLongs().sub(MAGIC_BITS);
+    }
+
+    //exact, comparisons that must select long lanes are done on the widened floats
+    private static DoubleVector toDouble(FloatVector v) {
+        return (DoubleVector) v.convertShape(F2D, D, 0);
+    }
+
+    //same as the scalar (int) x; x < xi ? xi - 1 : xi
+    private static DoubleVector fastFloor(DoubleVector x) {
+        DoubleVector nearest = x.add(MAGIC).sub(MAGIC);
+        return nearest.sub(1.0, nearest.compare(GT, x));
+    }
+
+    //same as the scalar x < 0 ? (int)(x - 0.5) : (int)(x + 0.5)
+    private static DoubleVector fastRound(DoubleVector x) {
+        VectorMask<Double> negative = x.lt(0.0);
+        DoubleVector y = x.add(DoubleVector.broadcast(D, 0.5).blend(-0.5, negative));
+        DoubleVector truncated = fastFloor(y.blend(y.neg(), negative));
+        return truncated.blend(truncated.neg(), negative);
+    }
+
+    private static FloatVector grad2(long seed, LongVector xsvp, LongVector ysvp, FloatVector dx, FloatVector dy, int[] indices) {
+        LongVector hash = xsvp.lanewise(XOR, seed).lanewise(XOR, ysvp);
+        hash = hash.mul(HASH_MULTIPLIER);
+        hash = hash.lanewise(XOR, hash.lanewise(ASHR, 64 - N_GRADS_2D_EXPONENT + 1));
+        //same gradient as (int) hash & ((N_GRADS_2D - 1) << 1) on the interleaved table
+        ((IntVector) hash.convertShape(L2I, I, 0)).lanewise(ASHR, 1).and(N_GRADS_2D - 1).intoArray(indices, 0);
+
+        FloatVector gx = FloatVector.fromArray(F, GRADIENTS_2D_X, 0, indices, 0);
+        FloatVector gy = FloatVector.fromArray(F, GRADIENTS_2D_Y, 0, indices, 0);
+        return gx.mul(dx).add(gy.mul(dy));
+    }
+
+    private static FloatVector grad3(long seed, LongVector xrvp, LongVector yrvp, LongVector zrvp, FloatVector dx, FloatVector dy, FloatVector dz, int[] indices) {
+        LongVector hash = xrvp.lanewise(XOR, seed).lanewise(XOR, yrvp.lanewise(XOR, zrvp));
+        hash = hash.mul(HASH_MULTIPLIER);
+        hash = hash.lanewise(XOR, hash.lanewise(ASHR, 64 - N_GRADS_3D_EXPONENT + 2));
+        ((IntVector) hash.convertShape(L2I, I, 0)).lanewise(ASHR, 2).and(N_GRADS_3D - 1).intoArray(indices, 0);
+
+        FloatVector gx = FloatVector.fromArray(F, GRADIENTS_3D_X, 0, indices, 0);
+        FloatVector gy = FloatVector.fromArray(F, GRADIENTS_3D_Y, 0, indices, 0);
+        FloatVector gz = FloatVector.fromArray(F, GRADIENTS_3D_Z, 0, indices, 0);
+        return gx.mul(dx).add(gy.mul(dy)).add(gz.mul(dz));
+    }
+
+    private static FloatVector falloff(FloatVector a) {
+        FloatVector aa = a.mul(a);
+        return aa.mul(aa);
+    }
+
+    /*
+     * Kernels
+     */
+
+    //lanes of the 2D kernel, a kernel is too large to be compiled as one method with every vector
+    //operation inlined (C2 stops inlining and boxes the vectors), so it is split in small phases that
+    //pass their lanes through these arrays; a phase works either on float or on long lanes where possible
+    private static class Lanes2 {
+
+        private final double[] xs = new double[LANES];
+        private final double[] ys = new double[LANES];
+
+        private final float[] xi = new float[LANES];
+        private final float[] yi = new float[LANES];
+        private final float[] t = new float[LANES];
+        private final float[] a = new float[LANES];
+        private final float[] dx = new float[LANES];
+        private final float[] dy = new float[LANES];
+        private final float[] value = new float[LANES];
+
+        private final long[] xsbp = new long[LANES];
+        private final long[] ysbp = new long[LANES];
+        private final long[] xp = new long[LANES];
+        private final long[] yp = new long[LANES];
+
+        private final int[] indices = new int[LANES];
+    }
+
+    // Get base points and offsets, prime pre-multiplication for hash.
+    private static void noise2_Axis(double[] v, float[] vi, long[] vbp, long prime) {
+        DoubleVector vv = DoubleVector.fromArray(D, v, 0);
+        DoubleVector vb = fastFloor(vv);
+        toFloat(vv.sub(vb)).intoArray(vi, 0);
+        toLong(vb).mul(prime).intoArray(vbp, 0);
+    }
+
+    //adds the contribution of a vertex to the lanes where t is positive
+    private static void noise2_Vertex(Lanes2 s, long seed, float[] t, long[] xsvp, long[] ysvp, float[] dx, float[] dy) {
+        FloatVector tv = FloatVector.fromArray(F, t, 0);
+        FloatVector gradient = grad2(
+                seed,
+                LongVector.fromArray(L, xsvp, 0), LongVector.fromArray(L, ysvp, 0),
+                FloatVector.fromArray(F, dx, 0), FloatVector.fromArray(F, dy, 0),
+                s.indices
+        );
+        FloatVector.fromArray(F, s.value, 0).add(falloff(tv).mul(gradient), tv.compare(GT, 0f)).intoArray(s.value, 0);
+    }
+
+    // Unskew.
+    private static void noise2_First(Lanes2 s) {
+        FloatVector xi = FloatVector.fromArray(F, s.xi, 0);
+        FloatVector yi = FloatVector.fromArray(F, s.yi, 0);
+        FloatVector t = xi.add(yi).mul(UNSKEW_2D_F);
+        FloatVector dx0 = xi.add(t), dy0 = yi.add(t);
+        t.intoArray(s.t, 0);
+        dx0.intoArray(s.dx, 0);
+        dy0.intoArray(s.dy, 0);
+        FloatVector.broadcast(F, RSQUARED_2D).sub(dx0.mul(dx0)).sub(dy0.mul(dy0)).intoArray(s.a, 0);
+        FloatVector.zero(F).intoArray(s.value, 0);
+    }
+
+    // Second vertex.
+    private static void noise2_Second(Lanes2 s) {
+        FloatVector a0 = FloatVector.fromArray(F, s.a, 0);
+        FloatVector.fromArray(F, s.t, 0).mul(A1_T).add(a0.add(A1_CONSTANT)).intoArray(s.a, 0);
+        FloatVector.fromArray(F, s.dx, 0).sub(UNSKEW_2D_DIAGONAL).intoArray(s.xi, 0);
+        FloatVector.fromArray(F, s.dy, 0).sub(UNSKEW_2D_DIAGONAL).intoArray(s.yi, 0);
+        LongVector.fromArray(L, s.xsbp, 0).add(PRIME_X).intoArray(s.xp, 0);
+        LongVector.fromArray(L, s.ysbp, 0).add(PRIME_Y).intoArray(s.yp, 0);
+    }
+
+    // Third vertex, (0, 1) where dy0 > dx0 and (1, 0) elsewhere.
+    private static void noise2_ThirdOffsets(Lanes2 s) {
+        FloatVector dx0 = FloatVector.fromArray(F, s.dx, 0);
+        FloatVector dy0 = FloatVector.fromArray(F, s.dy, 0);
+        VectorMask<Float> up = dy0.compare(GT, dx0);
+        FloatVector dx2 = dx0.sub(FloatVector.broadcast(F, UNSKEW_2D_PLUS_1).blend(UNSKEW_2D_F, up));
+        FloatVector dy2 = dy0.sub(FloatVector.broadcast(F, UNSKEW_2D_F).blend(UNSKEW_2D_PLUS_1, up));
+        dx2.intoArray(s.xi, 0);
+        dy2.intoArray(s.yi, 0);
+        FloatVector.broadcast(F, RSQUARED_2D).sub(dx2.mul(dx2)).sub(dy2.mul(dy2)).intoArray(s.a, 0);
+    }
+
+    //the same selection on the widened values, masks can not be cast from float to long lanes
+    private static void noise2_ThirdPrimes(Lanes2 s) {
+        VectorMask<Long> up = toDouble(FloatVector.fromArray(F, s.dy, 0))
+                .compare(GT, toDouble(FloatVector.fromArray(F, s.dx, 0)))
+                .cast(L);
+        LongVector.fromArray(L, s.xsbp, 0).add(PRIME_X, up.not()).intoArray(s.xp, 0);
+        LongVector.fromArray(L, s.ysbp, 0).add(PRIME_Y, up).intoArray(s.yp, 0);
+    }
+
+    //xs and ys of the lanes must be set, the result is left in value
+    private static void noise2_UnskewedBase(long seed, Lanes2 s) {
+        noise2_Axis(s.xs, s.xi, s.xsbp, PRIME_X);
+        noise2_Axis(s.ys, s.yi, s.ysbp, PRIME_Y);
+
+        // First vertex.
+        noise2_First(s);
+        noise2_Vertex(s, seed, s.a, s.xsbp, s.ysbp, s.dx, s.dy);
+
+        noise2_Second(s);
+        noise2_Vertex(s, seed, s.a, s.xp, s.yp, s.xi, s.yi);
+
+        noise2_ThirdOffsets(s);
+        noise2_ThirdPrimes(s);
+        noise2_Vertex(s, seed, s.a, s.xp, s.yp, s.xi, s.yi);
+    }
+
+    //lanes of the 3D kernel, see Lanes2
+    private static class Lanes3 {
+
+        private final double[] xr = new double[LANES];
+        private final double[] yr = new double[LANES];
+        private final double[] zr = new double[LANES];
+
+        private final float[] xri = new float[LANES];
+        private final float[] yri = new float[LANES];
+        private final float[] zri = new float[LANES];
+        private final float[] ax0 = new float[LANES];
+        private final float[] ay0 = new float[LANES];
+        private final float[] az0 = new float[LANES];
+        private final float[] xNSign = new float[LANES];
+        private final float[] yNSign = new float[LANES];
+        private final float[] zNSign = new float[LANES];
+        private final float[] a = new float[LANES];
+        private final float[] value = new float[LANES];
+
+        private final long[] xrbp = new long[LANES];
+        private final long[] yrbp = new long[LANES];
+        private final long[] zrbp = new long[LANES];
+        private final long[] xNSignL = new long[LANES];
+        private final long[] yNSignL = new long[LANES];
+        private final long[] zNSignL = new long[LANES];
+
+        //second-closest point
+        private final float[] b = new float[LANES];
+        private final float[] dx = new float[LANES];
+        private final float[] dy = new float[LANES];
+        private final float[] dz = new float[LANES];
+        private final long[] xp = new long[LANES];
+        private final long[] yp = new long[LANES];
+        private final long[] zp = new long[LANES];
+
+        private final int[] indices = new int[LANES];
+    }
+
+    // Get base points and offsets, prime pre-multiplication for hash.
+    private static void noise3_Axis(double[] r, float[] ri, long[] rbp, long prime) {
+        DoubleVector rv = DoubleVector.fromArray(D, r, 0);
+        DoubleVector rb = fastRound(rv);
+        toFloat(rv.sub(rb)).intoArray(ri, 0);
+        toLong(rb).mul(prime).intoArray(rbp, 0);
+    }
+
+    private static void noise3_Signs(Lanes3 s) {
+        FloatVector xri = FloatVector.fromArray(F, s.xri, 0);
+        FloatVector yri = FloatVector.fromArray(F, s.yri, 0);
+        FloatVector zri = FloatVector.fromArray(F, s.zri, 0);
+
+        // -1 if positive, 1 if negative, (int)(-1.0f - xri) | 1 is -1 exactly when -1.0f - xri <= -1.
+        FloatVector minusOne = FloatVector.broadcast(F, -1.0f);
+        VectorMask<Double> xPositive = toDouble(minusOne.sub(xri)).compare(LE, -1.0);
+        VectorMask<Double> yPositive = toDouble(minusOne.sub(yri)).compare(LE, -1.0);
+        VectorMask<Double> zPositive = toDouble(minusOne.sub(zri)).compare(LE, -1.0);
+
+        LongVector oneL = LongVector.broadcast(L, 1L);
+        oneL.blend(-1L, xPositive.cast(L)).intoArray(s.xNSignL, 0);
+        oneL.blend(-1L, yPositive.cast(L)).intoArray(s.yNSignL, 0);
+        oneL.blend(-1L, zPositive.cast(L)).intoArray(s.zNSignL, 0);
+
+        DoubleVector one = DoubleVector.broadcast(D, 1.0);
+        FloatVector xNSign = toFloat(one.blend(-1.0, xPositive));
+        FloatVector yNSign = toFloat(one.blend(-1.0, yPositive));
+        FloatVector zNSign = toFloat(one.blend(-1.0, zPositive));
+        xNSign.intoArray(s.xNSign, 0);
+        yNSign.intoArray(s.yNSign, 0);
+        zNSign.intoArray(s.zNSign, 0);
+
+        // Absolute values.
+        xNSign.mul(xri.neg()).intoArray(s.ax0, 0);
+        yNSign.mul(yri.neg()).intoArray(s.ay0, 0);
+        zNSign.mul(zri.neg()).intoArray(s.az0, 0);
+
+        FloatVector.broadcast(F, RSQUARED_3D).sub(xri.mul(xri)).sub(yri.mul(yri).add(zri.mul(zri))).intoArray(s.a, 0);
+        FloatVector.zero(F).intoArray(s.value, 0);
+    }
+
+    //adds the contribution of a vertex to the lanes where t is positive
+    private static void noise3_Vertex(
+            Lanes3 s, long seed, float[] t,
+            long[] xrvp, long[] yrvp, long[] zrvp,
+            float[] dx, float[] dy, float[] dz
+    ) {
+        FloatVector tv = FloatVector.fromArray(F, t, 0);
+        FloatVector gradient = grad3(
+                seed,
+                LongVector.fromArray(L, xrvp, 0), LongVector.fromArray(L, yrvp, 0), LongVector.fromArray(L, zrvp, 0),
+                FloatVector.fromArray(F, dx, 0), FloatVector.fromArray(F, dy, 0), FloatVector.fromArray(F, dz, 0),
+                s.indices
+        );
+        FloatVector.fromArray(F, s.value, 0).add(falloff(tv).mul(gradient), tv.compare(GT, 0f)).intoArray(s.value, 0);
+    }
+
+    // Second-closest point, along the axis with the largest absolute value.
+    private static void noise3_SecondOffsets(Lanes3 s) {
+        FloatVector ax0 = FloatVector.fromArray(F, s.ax0, 0);
+        FloatVector ay0 = FloatVector.fromArray(F, s.ay0, 0);
+        FloatVector az0 = FloatVector.fromArray(F, s.az0, 0);
+
+        VectorMask<Float> onX = ax0.compare(GE, ay0).and(ax0.compare(GE, az0));
+        VectorMask<Float> onY = onX.not().and(ay0.compare(GT, ax0)).and(ay0.compare(GE, az0));
+        VectorMask<Float> onZ = onX.or(onY).not();
+
+        //b > 1 exactly when b - 1 > 0, so the vertex can test the lanes like the closest point
+        FloatVector axis = az0.blend(ay0, onY).blend(ax0, onX);
+        FloatVector.fromArray(F, s.a, 0).add(axis).add(axis).sub(1f).intoArray(s.b, 0);
+
+        FloatVector.fromArray(F, s.xri, 0).add(FloatVector.fromArray(F, s.xNSign, 0), onX).intoArray(s.dx, 0);
+        FloatVector.fromArray(F, s.yri, 0).add(FloatVector.fromArray(F, s.yNSign, 0), onY).intoArray(s.dy, 0);
+        FloatVector.fromArray(F, s.zri, 0).add(FloatVector.fromArray(F, s.zNSign, 0), onZ).intoArray(s.dz, 0);
+    }
+
+    //the same axis selection on the widened values, masks can not be cast from float to long lanes
+    private static void noise3_SecondPrimes(Lanes3 s) {
+        DoubleVector ax0 = toDouble(FloatVector.fromArray(F, s.ax0, 0));
+        DoubleVector ay0 = toDouble(FloatVector.fromArray(F, s.ay0, 0));
+        DoubleVector az0 = toDouble(FloatVector.fromArray(F, s.az0, 0));
+
+        VectorMask<Double> onX = ax0.compare(GE, ay0).and(ax0.compare(GE, az0));
+        VectorMask<Double> onY = onX.not().and(ay0.compare(GT, ax0)).and(ay0.compare(GE, az0));
+        VectorMask<Double> onZ = onX.or(onY).not();
+
+        LongVector.fromArray(L, s.xrbp, 0).sub(LongVector.fromArray(L, s.xNSignL, 0).mul(PRIME_X), onX.cast(L)).intoArray(s.xp, 0);
+        LongVector.fromArray(L, s.yrbp, 0).sub(LongVector.fromArray(L, s.yNSignL, 0).mul(PRIME_Y), onY.cast(L)).intoArray(s.yp, 0);
+        LongVector.fromArray(L, s.zrbp, 0).sub(LongVector.fromArray(L, s.zNSignL, 0).mul(PRIME_Z), onZ.cast(L)).intoArray(s.zp, 0);
+    }
+
+    // Moves to the other lattice copy.
+    private static void noise3_FlipOffsets(Lanes3 s) {
+        FloatVector half = FloatVector.broadcast(F, 0.5f);
+        FloatVector xNSign = FloatVector.fromArray(F, s.xNSign, 0);
+        FloatVector yNSign = FloatVector.fromArray(F, s.yNSign, 0);
+        FloatVector zNSign = FloatVector.fromArray(F, s.zNSign, 0);
+
+        // Update absolute value.
+        FloatVector ax0 = half.sub(FloatVector.fromArray(F, s.ax0, 0));
+        FloatVector ay0 = half.sub(FloatVector.fromArray(F, s.ay0, 0));
+        FloatVector az0 = half.sub(FloatVector.fromArray(F, s.az0, 0));
+        ax0.intoArray(s.ax0, 0);
+        ay0.intoArray(s.ay0, 0);
+        az0.intoArray(s.az0, 0);
+
+        // Update relative coordinate.
+        xNSign.mul(ax0).intoArray(s.xri, 0);
+        yNSign.mul(ay0).intoArray(s.yri, 0);
+        zNSign.mul(az0).intoArray(s.zri, 0);
+
+        // Update falloff.
+        FloatVector a = FloatVector.fromArray(F, s.a, 0);
+        a.add(FloatVector.broadcast(F, 0.75f).sub(ax0).sub(ay0.add(az0))).intoArray(s.a, 0);
+
+        // Update the reverse sign indicators.
+        xNSign.neg().intoArray(s.xNSign, 0);
+        yNSign.neg().intoArray(s.yNSign, 0);
+        zNSign.neg().intoArray(s.zNSign, 0);
+    }
+
+    private static void noise3_FlipPrimes(Lanes3 s) {
+        LongVector xNSign = LongVector.fromArray(L, s.xNSignL, 0);
+        LongVector yNSign = LongVector.fromArray(L, s.yNSignL, 0);
+        LongVector zNSign = LongVector.fromArray(L, s.zNSignL, 0);
+
+        // Update prime for hash.
+        LongVector.fromArray(L, s.xrbp, 0).add(xNSign.lanewise(ASHR, 1).and(PRIME_X)).intoArray(s.xrbp, 0);
+        LongVector.fromArray(L, s.yrbp, 0).add(yNSign.lanewise(ASHR, 1).and(PRIME_Y)).intoArray(s.yrbp, 0);
+        LongVector.fromArray(L, s.zrbp, 0).add(zNSign.lanewise(ASHR, 1).and(PRIME_Z)).intoArray(s.zrbp, 0);
+
+        // Update the reverse sign indicators.
+        xNSign.neg().intoArray(s.xNSignL, 0);
+        yNSign.neg().intoArray(s.yNSignL, 0);
+        zNSign.neg().intoArray(s.zNSignL, 0);
+    }
+
+    private static void noise3_Lattice(Lanes3 s, long seed) {
+        // Closest point on cube.
+        noise3_Vertex(s, seed, s.a, s.xrbp, s.yrbp, s.zrbp, s.xri, s.yri, s.zri);
+
+        // Second-closest point.
+        noise3_SecondOffsets(s);
+        noise3_SecondPrimes(s);
+        noise3_Vertex(s, seed, s.b, s.xp, s.yp, s.zp, s.dx, s.dy, s.dz);
+    }
+
+    //xr, yr and zr of the lanes must be set, the result is left in value
+    private static void noise3_UnrotatedBase(long seed, Lanes3 s) {
+        noise3_Axis(s.xr, s.xri, s.xrbp, PRIME_X);
+        noise3_Axis(s.yr, s.yri, s.yrbp, PRIME_Y);
+        noise3_Axis(s.zr, s.zri, s.zrbp, PRIME_Z);
+        noise3_Signs(s);
+
+        // Pick an edge on each lattice copy.
+        noise3_Lattice(s, seed);
+
+        noise3_FlipOffsets(s);
+        noise3_FlipPrimes(s);
+
+        // And finally update the seed for the other lattice copy.
+        noise3_Lattice(s, seed ^ SEED_FLIP_3D);
+    }
+
+    /*
+     * Grid Evaluators
+     */
+
+    @Override
+    public void noise2Grid(long seed, double x0, double y0, double dx, double dy, double period, int w, int h, float[] out) {
+        double[] columns = new double[w];
+        for (int i = 0; i < w; i++) {
+            columns[i] = (x0 + i * dx) / period;
+        }
+        Lanes2 lanes = new Lanes2();
+        int vectorWidth = D.loopBound(w);
+
+        for (int j = 0; j < h; j++) {
+            double y = (y0 + j * dy) / period;
+            int i = 0;
+            for (; i < vectorWidth; i += LANES) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    double x = columns[i + lane];
+
+                    // Get points for A2* lattice
+                    double s = SKEW_2D * (x + y);
+                    lanes.xs[lane] = x + s;
+                    lanes.ys[lane] = y + s;
+                }
+                noise2_UnskewedBase(seed, lanes);
+                System.arraycopy(lanes.value, 0, out, i + j * w, LANES);
+            }
+            for (; i < w; i++) {
+                out[i + j * w] = OpenSimplex2.noise2(seed, columns[i], y);
+            }
+        }
+    }
+
+    @Override
+    public void noise3Grid_ImproveXZ(long seed, double x0, double y0, double z0, double dx, double dy, double dz, double period, int w, int h, int d, float[] out) {
+        double[] rows = new double[h];
+        double[] ys = new double[h];
+        for (int j = 0; j < h; j++) {
+            ys[j] = (y0 + j * dy) / period;
+            rows[j] = ys[j] * ROOT3OVER3;
+        }
+        double[] xs = new double[w];
+        double[] xs2 = new double[w];
+        double[] zs2 = new double[w];
+        double[] xzr = new double[w];
+        Lanes3 lanes = new Lanes3();
+        int vectorWidth = D.loopBound(w);
+
+        for (int k = 0; k < d; k++) {
+            double z = (z0 + k * dz) / period;
+
+            // Same rotation as noise3_ImproveXZ, split into its XZ and Y parts.
+            for (int i = 0; i < w; i++) {
+                double x = (x0 + i * dx) / period;
+                double xz = x + z;
+                double s2 = xz * ROTATE_3D_ORTHOGONALIZER;
+                xs[i] = x;
+                xs2[i] = x + s2;
+                zs2[i] = z + s2;
+                xzr[i] = xz * -ROOT3OVER3;
+            }
+
+            int i = 0;
+            for (; i < vectorWidth; i += LANES) {
+                for (int j = 0; j < h; j++) {
+                    double yy = rows[j];
+                    for (int lane = 0; lane < LANES; lane++) {
+                        lanes.xr[lane] = xs2[i + lane] + yy;
+                        lanes.yr[lane] = xzr[i + lane] + yy;
+                        lanes.zr[lane] = zs2[i + lane] + yy;
+                    }
+                    noise3_UnrotatedBase(seed, lanes);
+                    System.arraycopy(lanes.value, 0, out, i + w * (j + h * k), LANES);
+                }
+            }
+            for (; i < w; i++) {
+                for (int j = 0; j < h; j++) {
+                    out[i + w * (j + h * k)] = OpenSimplex2.noise3_ImproveXZ(seed, xs[i], ys[j], z);
+                }
+            }
+        }
+    }
+
+}